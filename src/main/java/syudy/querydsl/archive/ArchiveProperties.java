@@ -0,0 +1,45 @@
+package syudy.querydsl.archive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.archive")
+public class ArchiveProperties {
+
+    private boolean enabled;
+
+    private Duration interval = Duration.ofMinutes(1);
+
+    /* 한 트랜잭션에서 옮기는 회원 수 (row 락을 잡는 시간과 undo 크기를 제한) */
+    private int chunkSize = 1_000;
+
+    /* 한번 실행할 때 최대 chunk 수, 남은 회원은 다음 실행에서 */
+    private int maxChunksPerRun = 100;
+
+    /* chunk 사이에 쉬는 시간 (다른 트랜잭션에 커넥션과 락을 양보) */
+    private Duration pause = Duration.ofMillis(10);
+
+    private Policy policy = new Policy();
+
+    /*
+        보관 대상 조건 (모두 만족하는 회원만 이동, 하나도 지정하지 않으면 아무것도 옮기지 않음)
+            - Member 에 마지막 활동 시각이 없기 때문에 팀 탈퇴 여부와 나이로 판단
+    */
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /* 팀이 없는 (팀에서 나간) 회원 */
+        private boolean withoutTeam;
+
+        private Integer ageGoe;
+        private Integer ageLoe;
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package syudy.querydsl.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeType;
+import syudy.querydsl.entity.Member;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    보관 조건(ArchiveProperties.Policy)에 맞는 회원을 member 에서 member_archive 로 옮김 (querydsl.archive.enabled=true 일 때만 등록)
+
+        - interval 마다 백그라운드 스레드에서 chunkSize 건씩, chunk 하나가 트랜잭션 하나
+        - 조회한 version 그대로일 때만 삭제 --> 그 사이 다른 트랜잭션이 수정한 회원은 이번에 옮기지 않음 (다음 실행에서 다시 판단)
+        - 다음 chunk 는 마지막으로 조회한 member_id 다음부터 (keyset) --> 건너뛴 회원을 같은 실행에서 다시 조회하지 않음
+        - 삭제한 회원만 archive 에 insert, 커밋 후 ChangeFeed 에 DELETE 발행 (캐시, 스냅샷에서 제거)
+        - member 가 작게 유지되어 기본 검색은 최근 회원만 대상, archive 는 MemberSearchCondition.includeArchived 일 때만 조회
+*/
+@Slf4j
+public class MemberArchiver implements DisposableBean {
+
+    private static final String SELECT = "select member_id, version, username, age, team_id from member";
+    /* JDBC 로 넣은 회원은 version 이 null 일 수 있음 (version = null 은 항상 false 라서 NULL_VERSION 으로 비교) */
+    private static final String DELETE = "delete from member where member_id = ? and coalesce(version, -1) = ?";
+    private static final String INSERT = "insert into member_archive (member_id, version, username, age, team_id, archived_at) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final long NULL_VERSION = -1L;
+
+    private final ArchiveProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService archiver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong archived = new AtomicLong();
+
+    public MemberArchiver(ArchiveProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void start() {
+        final long interval = properties.getInterval().toMillis();
+        archiver.scheduleWithFixedDelay(this::runQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /* chunk 단위로 옮기고 이번 실행에서 옮긴 회원 수 반환 */
+    public long run() {
+        final List<Object> parameters = new ArrayList<>();
+        final String where = where(parameters);
+        if (where == null) {
+            log.warn("archive policy has no condition, nothing archived");
+            return 0L;
+        }
+        final String select = SELECT + " where " + where + " and member_id > ? order by member_id limit ?";
+
+        long moved = 0L;
+        long lastMemberId = Long.MIN_VALUE;
+        for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+            final List<Object> chunkParameters = new ArrayList<>(parameters);
+            chunkParameters.add(lastMemberId);
+            chunkParameters.add(properties.getChunkSize());
+            final Chunk result = transactionTemplate.execute(status -> archiveChunk(select, chunkParameters.toArray()));
+            if (result == null) {
+                break;
+            }
+            moved += result.archived;
+            lastMemberId = result.lastMemberId;
+            /* 조회한 건수가 chunkSize 보다 적으면 마지막 chunk (수정되어 건너뛴 회원은 다음 실행에서 다시 판단) */
+            if (result.selected < properties.getChunkSize() || !pause()) {
+                break;
+            }
+        }
+        archived.addAndGet(moved);
+        return moved;
+    }
+
+    public long getArchived() {
+        return archived.get();
+    }
+
+    @Override
+    public void destroy() {
+        archiver.shutdownNow();
+    }
+
+    private Chunk archiveChunk(String select, Object[] parameters) {
+        final List<Object[]> rows = jdbcTemplate.query(select, (rs, rowNum) -> new Object[]{
+                rs.getLong(1), rs.getObject(2), rs.getString(3), rs.getInt(4), rs.getObject(5)
+        }, parameters);
+        if (rows.isEmpty()) {
+            return new Chunk(0, 0, Long.MAX_VALUE);
+        }
+
+        final List<Object[]> deletes = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            deletes.add(new Object[]{row[0], row[1] == null ? NULL_VERSION : row[1]});
+        }
+        final int[] deleted = jdbcTemplate.batchUpdate(DELETE, deletes);
+
+        final Timestamp archivedAt = Timestamp.valueOf(LocalDateTime.now());
+        final List<Object[]> inserts = new ArrayList<>(rows.size());
+        final List<Long> memberIds = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (deleted[i] == 0) {
+                continue;
+            }
+            final Object[] row = rows.get(i);
+            inserts.add(new Object[]{row[0], row[1], row[2], row[3], row[4], archivedAt});
+            memberIds.add((Long) row[0]);
+        }
+        jdbcTemplate.batchUpdate(INSERT, inserts);
+        changeFeed.publish(MEMBER, ChangeType.DELETE, memberIds, null);
+        return new Chunk(rows.size(), memberIds.size(), (Long) rows.get(rows.size() - 1)[0]);
+    }
+
+    private String where(List<Object> parameters) {
+        final ArchiveProperties.Policy policy = properties.getPolicy();
+        final List<String> conditions = new ArrayList<>();
+        if (policy.isWithoutTeam()) {
+            conditions.add("team_id is null");
+        }
+        if (policy.getAgeGoe() != null) {
+            conditions.add("age >= ?");
+            parameters.add(policy.getAgeGoe());
+        }
+        if (policy.getAgeLoe() != null) {
+            conditions.add("age <= ?");
+            parameters.add(policy.getAgeLoe());
+        }
+        return conditions.isEmpty() ? null : String.join(" and ", conditions);
+    }
+
+    /* 종료 중(interrupt)이면 false */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            final long moved = run();
+            if (moved > 0) {
+                log.info("archived {} members", moved);
+            }
+        } catch (RuntimeException e) {
+            log.warn("member archive failed", e);
+        }
+    }
+
+    private static final class Chunk {
+
+        private final int selected;
+        private final int archived;
+        private final long lastMemberId;
+
+        private Chunk(int selected, int archived, long lastMemberId) {
+            this.selected = selected;
+            this.archived = archived;
+            this.lastMemberId = lastMemberId;
+        }
+
+    }
+
+}
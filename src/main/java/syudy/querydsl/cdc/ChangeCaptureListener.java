@@ -0,0 +1,88 @@
+package syudy.querydsl.cdc;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/* 엔티티 insert/update/delete 를 커밋 이후에 ChangeFeed 로 발행 (변경감지로 찾은 dirty 필드 포함) */
+public class ChangeCaptureListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeCaptureListener(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    public void register(EntityManagerFactory emf) {
+        final EventListenerRegistry registry = emf.unwrap(SessionFactoryImpl.class)
+                                                  .getServiceRegistry()
+                                                  .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changeFeed.append(entityName(event.getPersister()), ChangeType.INSERT, event.getId(), Collections.emptySet());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        final Set<String> changedFields = new LinkedHashSet<>();
+        final int[] dirtyProperties = event.getDirtyProperties();
+        if (dirtyProperties != null) {
+            final String[] propertyNames = event.getPersister().getPropertyNames();
+            for (int index : dirtyProperties) {
+                changedFields.add(propertyNames[index]);
+            }
+        }
+        changeFeed.append(entityName(event.getPersister()), ChangeType.UPDATE, event.getId(), changedFields);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changeFeed.append(entityName(event.getPersister()), ChangeType.DELETE, event.getId(), Collections.emptySet());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    /* Hibernate 5.4 에서는 아직 추상 메서드라 구현해야 함 (requiresPostCommitHandling 의 기본 구현이 이걸 호출) */
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return true;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private String entityName(EntityPersister persister) {
+        return persister.getMappedClass().getSimpleName();
+    }
+
+}
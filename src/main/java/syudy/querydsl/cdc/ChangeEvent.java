@@ -0,0 +1,26 @@
+package syudy.querydsl.cdc;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class ChangeEvent {
+
+    /* ChangeFeed 에 기록된 순서 (1부터 증가) */
+    private long sequence;
+    /* 엔티티 이름 (Member, Team) */
+    private String entity;
+    private ChangeType type;
+    /* 변경된 엔티티 id, bulk 연산은 chunk 단위로 여러 id 를 이벤트 하나에 담음 */
+    private List<?> ids;
+    /* 변경된 필드 (INSERT, DELETE 는 비어있음) */
+    private Set<String> changedFields;
+    private long timestamp;
+
+}
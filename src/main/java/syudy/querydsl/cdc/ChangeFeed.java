@@ -0,0 +1,95 @@
+package syudy.querydsl.cdc;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/*
+    Member/Team 변경 이벤트를 순서대로 담는 in-process ring buffer
+
+        - 엔티티 변경은 Hibernate post-commit 리스너(ChangeCaptureListener)가, bulk update 는 Repository 가 직접 발행
+        - 트랜잭션 안에서 발행하면 커밋된 뒤에만 기록 (롤백된 변경은 나가지 않음)
+        - 구독자(ChangeSubscription)는 각자 읽은 위치를 가지고 poll, 너무 뒤처져서 덮어써진 경우 overrun 으로 알려줌
+          --> 캐시는 이때만 전체 무효화
+*/
+public class ChangeFeed {
+
+    private final ChangeEvent[] ring;
+    private final int mask;
+    private long lastSequence;
+
+    public ChangeFeed(ChangeFeedProperties properties) {
+        final int capacity = Integer.highestOneBit(Math.max(2, properties.getCapacity() - 1)) << 1;
+        this.ring = new ChangeEvent[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public void publish(String entity, ChangeType type, Object id, Set<String> changedFields) {
+        publish(entity, type, Collections.singletonList(id), changedFields);
+    }
+
+    /* 여러 id 를 이벤트 하나로 발행 (bulk 연산은 chunk 마다 한번) --> 대량 변경이 ring 을 한번에 덮어쓰지 않음 */
+    public void publish(String entity, ChangeType type, List<?> ids, Set<String> changedFields) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        final List<?> copied = Collections.unmodifiableList(new ArrayList<>(ids));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(entity, type, copied, changedFields);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(entity, type, copied, changedFields);
+            }
+        });
+    }
+
+    /* 지금 이후에 발행되는 이벤트부터 읽는 구독 */
+    public ChangeSubscription subscribe() {
+        return new ChangeSubscription(this, getLastSequence());
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    synchronized void append(String entity, ChangeType type, Object id, Set<String> changedFields) {
+        append(entity, type, Collections.singletonList(id), changedFields);
+    }
+
+    synchronized void append(String entity, ChangeType type, List<?> ids, Set<String> changedFields) {
+        final long sequence = ++lastSequence;
+        ring[(int) (sequence & mask)] = new ChangeEvent(sequence, entity, type, ids,
+                                                        changedFields == null ? Collections.emptySet() : changedFields,
+                                                        System.currentTimeMillis());
+        notifyAll();
+    }
+
+    /* afterSequence 다음 이벤트부터 최대 max 건, 이미 덮어써졌으면 null */
+    synchronized List<ChangeEvent> read(long afterSequence, int max) {
+        if (lastSequence - afterSequence > ring.length) {
+            return null;
+        }
+        final List<ChangeEvent> events = new ArrayList<>();
+        for (long sequence = afterSequence + 1; sequence <= lastSequence && events.size() < max; sequence++) {
+            events.add(ring[(int) (sequence & mask)]);
+        }
+        return events;
+    }
+
+    synchronized void awaitAfter(long sequence, long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (lastSequence <= sequence && remaining > 0L) {
+            wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+    }
+
+}
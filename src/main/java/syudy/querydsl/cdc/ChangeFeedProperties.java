@@ -0,0 +1,15 @@
+package syudy.querydsl.cdc;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.change-feed")
+public class ChangeFeedProperties {
+
+    /* ring buffer 크기 (2의 거듭제곱으로 올림), 구독자가 이만큼 뒤처지면 overrun */
+    private int capacity = 65_536;
+
+}
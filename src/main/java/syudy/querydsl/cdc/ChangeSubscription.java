@@ -0,0 +1,48 @@
+package syudy.querydsl.cdc;
+
+import java.util.Collections;
+import java.util.List;
+
+/* 구독자 한명의 읽기 위치, 한 스레드에서만 사용 */
+public class ChangeSubscription {
+
+    private final ChangeFeed feed;
+    private long position;
+    private boolean overrun;
+
+    ChangeSubscription(ChangeFeed feed, long position) {
+        this.feed = feed;
+        this.position = position;
+    }
+
+    public List<ChangeEvent> poll(int max) {
+        final List<ChangeEvent> events = feed.read(position, max);
+        if (events == null) {
+            /* 읽지 못한 이벤트가 덮어써짐 --> 최신 위치로 건너뛰고 overrun 표시 */
+            overrun = true;
+            position = feed.getLastSequence();
+            return Collections.emptyList();
+        }
+        if (!events.isEmpty()) {
+            position = events.get(events.size() - 1).getSequence();
+        }
+        return events;
+    }
+
+    public List<ChangeEvent> poll(int max, long timeoutMillis) throws InterruptedException {
+        feed.awaitAfter(position, timeoutMillis);
+        return poll(max);
+    }
+
+    /* overrun 이 있었는지 확인하고 초기화, true 이면 구독자는 전체 무효화가 필요 */
+    public boolean checkAndClearOverrun() {
+        final boolean result = overrun;
+        overrun = false;
+        return result;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+}
@@ -0,0 +1,7 @@
+package syudy.querydsl.cdc;
+
+public enum ChangeType {
+
+    INSERT, UPDATE, DELETE
+
+}
@@ -0,0 +1,27 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.archive.ArchiveProperties;
+import syudy.querydsl.archive.MemberArchiver;
+import syudy.querydsl.cdc.ChangeFeed;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.archive", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+
+    /* 백그라운드 작업이라 주입받는 곳이 없어도 시작되도록 lazy-initialization 프로파일에서도 즉시 생성 */
+    @Bean(initMethod = "start")
+    @Lazy(false)
+    MemberArchiver memberArchiver(ArchiveProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed,
+                                  PlatformTransactionManager transactionManager) {
+        return new MemberArchiver(properties, jdbcTemplate, changeFeed, transactionManager);
+    }
+
+}
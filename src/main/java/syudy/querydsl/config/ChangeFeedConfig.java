@@ -0,0 +1,31 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import syudy.querydsl.cdc.ChangeCaptureListener;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeFeedProperties;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedConfig {
+
+    @Bean
+    ChangeFeed changeFeed(ChangeFeedProperties properties) {
+        return new ChangeFeed(properties);
+    }
+
+    /* 리스너 등록이 빠지지 않도록 lazy-initialization 프로파일에서도 즉시 생성 */
+    @Bean
+    @Lazy(false)
+    ChangeCaptureListener changeCaptureListener(ChangeFeed changeFeed, EntityManagerFactory entityManagerFactory) {
+        final ChangeCaptureListener listener = new ChangeCaptureListener(changeFeed);
+        listener.register(entityManagerFactory);
+        return listener;
+    }
+
+}
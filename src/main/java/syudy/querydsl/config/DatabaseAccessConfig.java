@@ -0,0 +1,58 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.support.fair.FairSchedulerProperties;
+import syudy.querydsl.support.fair.FairSearchScheduler;
+import syudy.querydsl.support.fair.TenantFilter;
+import syudy.querydsl.support.flight.SingleFlight;
+import syudy.querydsl.support.flight.SingleFlightProperties;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.limit.LimiterProperties;
+import syudy.querydsl.support.retry.OptimisticLockRetryExecutor;
+import syudy.querydsl.support.retry.RetryProperties;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
+import syudy.querydsl.support.timeout.QueryTimeoutProperties;
+
+@Configuration
+@EnableConfigurationProperties({LimiterProperties.class, RetryProperties.class, SingleFlightProperties.class, QueryTimeoutProperties.class,
+        FairSchedulerProperties.class})
+public class DatabaseAccessConfig {
+
+    /* Repository 앞단에서 동시 검색 수를 제한 (커넥션 풀 메트릭은 actuator 가 hikaricp.connections.* 로 노출) */
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(LimiterProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties);
+    }
+
+    /* limiter 앞단에서 요청자별 대기열, quota, 가중치로 실행 순서를 정함 */
+    @Bean
+    FairSearchScheduler fairSearchScheduler(FairSchedulerProperties properties, AdaptiveConcurrencyLimiter limiter) {
+        return new FairSearchScheduler(properties, limiter);
+    }
+
+    /* 요청자는 principal / gateway header 로만 지정 (검색 조건으로 정하지 않음) */
+    @Bean
+    TenantFilter tenantFilter(FairSchedulerProperties properties) {
+        return new TenantFilter(properties);
+    }
+
+    /* 같은 조건의 동시 검색을 한번의 실행으로 합침 (limiter 앞단, 기다리는 요청은 limiter 자리를 차지하지 않음) */
+    @Bean
+    SingleFlight singleFlight(SingleFlightProperties properties) {
+        return new SingleFlight(properties);
+    }
+
+    @Bean
+    QueryTimeoutPolicy queryTimeoutPolicy(QueryTimeoutProperties properties) {
+        return new QueryTimeoutPolicy(properties);
+    }
+
+    @Bean
+    OptimisticLockRetryExecutor optimisticLockRetryExecutor(PlatformTransactionManager transactionManager, RetryProperties properties) {
+        return new OptimisticLockRetryExecutor(transactionManager, properties);
+    }
+
+}
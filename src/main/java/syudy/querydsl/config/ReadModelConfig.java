@@ -0,0 +1,41 @@
+package syudy.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.readmodel.MemberTeamViewEndpoint;
+import syudy.querydsl.readmodel.MemberTeamViewMaintainer;
+import syudy.querydsl.readmodel.ReadModelProperties;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.fair.FairSearchScheduler;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.read-model", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadModelProperties.class)
+public class ReadModelConfig {
+
+    /* 백그라운드 작업이라 주입받는 곳이 없어도 시작되도록 lazy-initialization 프로파일에서도 즉시 생성 */
+    @Bean(initMethod = "start")
+    @Lazy(false)
+    MemberTeamViewMaintainer memberTeamViewMaintainer(ReadModelProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed,
+                                                      JPAQueryFactory jpaQueryFactory, MemberRepository memberRepository,
+                                                      FairSearchScheduler scheduler, AdaptiveConcurrencyLimiter limiter, QueryTimeoutPolicy timeouts,
+                                                      PlatformTransactionManager transactionManager) {
+        return new MemberTeamViewMaintainer(properties, jdbcTemplate, changeFeed, jpaQueryFactory, memberRepository,
+                                            scheduler, limiter, timeouts, transactionManager);
+    }
+
+    @Bean
+    MemberTeamViewEndpoint memberTeamViewEndpoint(MemberTeamViewMaintainer memberTeamViewMaintainer) {
+        return new MemberTeamViewEndpoint(memberTeamViewMaintainer);
+    }
+
+}
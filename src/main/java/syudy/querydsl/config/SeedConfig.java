@@ -0,0 +1,22 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.importer.MemberImporter;
+import syudy.querydsl.seed.MemberSeeder;
+import syudy.querydsl.seed.SeedProperties;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.seed", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SeedProperties.class)
+public class SeedConfig {
+
+    @Bean
+    MemberSeeder memberSeeder(SeedProperties properties, JdbcTemplate jdbcTemplate, MemberImporter memberImporter) {
+        return new MemberSeeder(properties, jdbcTemplate, memberImporter);
+    }
+
+}
@@ -0,0 +1,84 @@
+package syudy.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.shard.ShardProperties;
+import syudy.querydsl.shard.ShardRouter;
+import syudy.querydsl.shard.ShardRoutingDataSource;
+import syudy.querydsl.shard.ShardedMemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    querydsl.shard.enabled=true 일 때만 동작 (application-shard.yml 참고)
+        - 기본 DataSource 를 shard 별 HikariDataSource 로 라우팅하는 DataSource 로 교체
+        - 스키마는 Hibernate(ddl-auto) 가 아니라 shard 마다 스크립트로 생성
+        - shard 전체를 대상으로 동작하는 것은 ShardedMemberRepository 뿐
+          MemberRepository 를 직접 쓰는 곳 (서비스, 통계, snapshot, read model, archive, username 캐시 등) 은
+          ShardContext 를 지정하지 않으면 기본 shard(0) 만 보기 때문에 이 프로파일에서는 0번 shard 기준 결과
+        - 종료할 때 ShardRoutingDataSource 가 shard 별 커넥션 풀을 닫음
+        - 시퀀스는 기동할 때마다 사용한 최대 id 다음 (shard 나머지에 맞춘 값) 부터 shardCount 씩 증가하도록 재설정
+*/
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.shard", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardConfig {
+
+    @Bean
+    ShardRouter shardRouter(ShardProperties properties) {
+        return new ShardRouter(properties.getUrls().size());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ShardProperties properties, ShardRouter shardRouter, ResourceLoader resourceLoader) {
+        final List<String> urls = properties.getUrls();
+        final List<HikariDataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            final HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("querydsl-shard-" + shard);
+            dataSource.setJdbcUrl(urls.get(shard));
+            dataSource.setUsername(properties.getUsername());
+            dataSource.setPassword(properties.getPassword());
+            dataSource.setMaximumPoolSize(properties.getMaximumPoolSize());
+
+            DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(resourceLoader.getResource(properties.getSchema())), dataSource);
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            final long restart = shardRouter.sequenceRestart(shard, maxUsedId(jdbcTemplate));
+            jdbcTemplate.execute(String.format("alter sequence hibernate_sequence restart with %d increment by %d", restart, shardRouter.getShardCount()));
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /* 이미 발급한 시퀀스 값과 테이블의 최대 id 중 큰 값 (파일 DB 처럼 재시작해도 데이터가 남아 있는 shard) */
+    private long maxUsedId(JdbcTemplate jdbcTemplate) {
+        final Long maxId = jdbcTemplate.queryForObject(
+                "select greatest(" +
+                "(select coalesce(max(current_value), 0) from information_schema.sequences where sequence_name = 'HIBERNATE_SEQUENCE'), " +
+                "(select coalesce(max(team_id), 0) from team), " +
+                "(select coalesce(max(member_id), 0) from member), " +
+                "(select coalesce(max(member_id), 0) from member_archive))", Long.class);
+        return maxId == null ? 0L : maxId;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    ShardedMemberRepository shardedMemberRepository(MemberRepository memberRepository, EntityManager em, ShardRouter shardRouter,
+                                                    PlatformTransactionManager transactionManager) {
+        return new ShardedMemberRepository(memberRepository, em, shardRouter, transactionManager);
+    }
+
+}
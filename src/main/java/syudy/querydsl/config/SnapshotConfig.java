@@ -0,0 +1,28 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.snapshot.MemberSnapshotEngine;
+import syudy.querydsl.snapshot.SnapshotProperties;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.snapshot", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfig {
+
+    /* 백그라운드 작업이라 주입받는 곳이 없어도 시작되도록 lazy-initialization 프로파일에서도 즉시 생성 */
+    @Bean(initMethod = "start")
+    @Lazy(false)
+    MemberSnapshotEngine memberSnapshotEngine(SnapshotProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed,
+                                              MemberRepository memberRepository, QueryTimeoutPolicy timeouts) {
+        return new MemberSnapshotEngine(properties, jdbcTemplate, changeFeed, memberRepository, timeouts);
+    }
+
+}
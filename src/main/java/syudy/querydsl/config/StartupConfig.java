@@ -0,0 +1,18 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import syudy.querydsl.support.startup.StartupTimeReporter;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.startup-report", name = "enabled", havingValue = "true")
+public class StartupConfig {
+
+    /* BeanPostProcessor 는 다른 빈보다 먼저 만들어져야 하기 때문에 static */
+    @Bean
+    static StartupTimeReporter startupTimeReporter() {
+        return new StartupTimeReporter();
+    }
+
+}
@@ -0,0 +1,58 @@
+package syudy.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import syudy.querydsl.support.cache.QueryCacheMetrics;
+import syudy.querydsl.support.cache.StatementCacheMonitor;
+import syudy.querydsl.support.cache.StatementCacheProperties;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+@EnableConfigurationProperties(StatementCacheProperties.class)
+public class StatementCacheConfig {
+
+    @Bean
+    StatementCacheMonitor statementCacheMonitor(StatementCacheProperties properties) {
+        return new StatementCacheMonitor(properties.getSize());
+    }
+
+    /*
+        이미 설정된 statement_inspector (테스트의 SqlCaptureInspector 등) 가 있으면 감싸서 같이 호출
+        generate_statistics 는 querydsl.statement-cache.plan-statistics 로만 켬
+    */
+    @Bean
+    HibernatePropertiesCustomizer statementCacheMonitorCustomizer(StatementCacheMonitor statementCacheMonitor, StatementCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, String.valueOf(properties.isPlanStatistics()));
+            final StatementInspector existing = instantiate(hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR));
+            final StatementInspector inspector = existing == null
+                    ? statementCacheMonitor
+                    : sql -> {
+                        final String inspected = existing.inspect(sql);
+                        return statementCacheMonitor.inspect(inspected == null ? sql : inspected);
+                    };
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        };
+    }
+
+    @Bean
+    QueryCacheMetrics queryCacheMetrics(EntityManagerFactory emf, StatementCacheMonitor statementCacheMonitor, StatementCacheProperties properties) {
+        return new QueryCacheMetrics(emf, statementCacheMonitor, properties.isPlanStatistics());
+    }
+
+    private StatementInspector instantiate(Object inspector) {
+        if (inspector == null || inspector instanceof StatementInspector) {
+            return (StatementInspector) inspector;
+        }
+        final Class<?> type = inspector instanceof Class ? (Class<?>) inspector : ClassUtils.resolveClassName(inspector.toString(), null);
+        return (StatementInspector) BeanUtils.instantiateClass(type);
+    }
+
+}
@@ -0,0 +1,20 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.stats.MemberQueryPlanner;
+import syudy.querydsl.stats.StatisticsProperties;
+
+@Configuration
+@EnableConfigurationProperties(StatisticsProperties.class)
+public class StatisticsConfig {
+
+    /* MemberRepositoryImpl 이 항상 주입받기 때문에 enabled=false 여도 등록 (수집만 하지 않음 --> 기본 방식으로 조회) */
+    @Bean(initMethod = "start")
+    MemberQueryPlanner memberQueryPlanner(StatisticsProperties properties, JdbcTemplate jdbcTemplate) {
+        return new MemberQueryPlanner(properties, jdbcTemplate);
+    }
+
+}
@@ -0,0 +1,21 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.support.cache.MemberUserNameCache;
+import syudy.querydsl.support.cache.UserNameCacheProperties;
+
+@Configuration
+@EnableConfigurationProperties(UserNameCacheProperties.class)
+public class UserNameCacheConfig {
+
+    /* enabled=false 이면 등록은 하되 항상 DB 조회 (MemberJpaRepository 가 주입받기 때문) */
+    @Bean
+    MemberUserNameCache memberUserNameCache(UserNameCacheProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed) {
+        return new MemberUserNameCache(properties, jdbcTemplate, changeFeed);
+    }
+
+}
@@ -0,0 +1,18 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import syudy.querydsl.support.virtual.VirtualThreadTomcatCustomizer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /* JDK 21 미만에서 실행하면 기동 시 IllegalStateException */
+    @Bean
+    VirtualThreadTomcatCustomizer virtualThreadTomcatCustomizer() {
+        return new VirtualThreadTomcatCustomizer();
+    }
+
+}
@@ -0,0 +1,26 @@
+package syudy.querydsl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.writebehind.MemberWriteBehindBuffer;
+import syudy.querydsl.writebehind.WriteBehindProperties;
+
+import javax.persistence.EntityManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "querydsl.write-behind", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindConfig {
+
+    @Bean
+    MemberWriteBehindBuffer memberWriteBehindBuffer(WriteBehindProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed,
+                                                    EntityManager em, PlatformTransactionManager transactionManager) {
+        return new MemberWriteBehindBuffer(properties, jdbcTemplate, changeFeed, em, transactionManager);
+    }
+
+}
@@ -0,0 +1,32 @@
+package syudy.querydsl.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* [from, to) 범위의 PK 구간 */
+@Getter
+@AllArgsConstructor
+@ToString
+public class IdRange {
+
+    private long from;
+    private long to;
+
+    /* 구간을 최대 count 개의 연속된 구간으로 나눔 (병렬 처리용) */
+    public List<IdRange> split(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive : " + count);
+        }
+        final List<IdRange> ranges = new ArrayList<>();
+        final long size = Math.max(1L, (to - from + count - 1) / count);
+        for (long start = from; start < to; start += size) {
+            ranges.add(new IdRange(start, Math.min(to, start + size)));
+        }
+        return ranges;
+    }
+
+}
@@ -16,4 +16,7 @@ public class MemberSearchCondition {
     private Integer ageGoe;
     private Integer ageLoe;
 
+    /* search 에서 member_archive 로 옮겨진 회원도 함께 조회 */
+    private boolean includeArchived;
+
 }
@@ -1,6 +1,7 @@
 package syudy.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 
@@ -16,6 +17,10 @@ public class Member {
     @Column(name = "member_id")
     private Long id;
 
+    /* 낙관적 락, 동시 수정 시 나중에 커밋하는 쪽이 덮어쓰지 않고 OptimisticLockException 발생 */
+    @Version
+    private Long version;
+
     private String username;
 
     private int age;
@@ -40,9 +45,19 @@ public class Member {
         }
     }
 
+    /*
+        양방향 연관관계 편의 메서드
+            - Team.members 가 이미 로딩된 경우에만 컬렉션을 함께 맞춰준다
+            - 지연로딩 프록시 상태의 Team 은 건드리지 않음 --> 팀원 수와 관계없이 팀 변경 비용 일정 (컬렉션은 나중에 조회할 때 DB 에서 읽음)
+    */
     public void changeTeam(Team team) {
+        if (this.team != null && Hibernate.isInitialized(this.team)) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        this.team.addMember(this);
+        if (Hibernate.isInitialized(team)) {
+            team.addMember(this);
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package syudy.querydsl.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/*
+    member 에서 옮겨진 회원 (MemberArchiver 가 JDBC 로 이동, 조회 전용)
+
+        - member_id 는 member 에서 쓰던 값 그대로 (시퀀스로 새로 만들지 않음)
+        - 팀이 삭제돼도 보관 데이터는 남아야 하므로 team_id 에 FK 제약을 두지 않음
+*/
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "username", "age", "archivedAt"})
+@Table(name = "member_archive")
+public class MemberArchive {
+
+    @Id
+    @Column(name = "member_id")
+    private Long id;
+
+    /* 옮길 당시의 version */
+    private Long version;
+
+    private String username;
+
+    private int age;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "team_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Team team;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+}
@@ -0,0 +1,39 @@
+package syudy.querydsl.entity;
+
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/*
+    MemberTeamDto 컬럼만 모아둔 비정규화 조회 테이블 (MemberTeamViewMaintainer 가 JDBC 로 갱신, 조회 전용)
+
+        - team 을 join 하지 않고 teamName 까지 한 테이블에서 조회
+        - member / team 이 원본, 이 테이블은 언제든 다시 만들 수 있음 (rebuild)
+*/
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"memberId", "username", "age", "teamName"})
+@Table(name = "member_team_view", indexes = {
+        @Index(name = "idx_member_team_view_team_name", columnList = "team_name"),
+        @Index(name = "idx_member_team_view_age", columnList = "age")
+})
+public class MemberTeamView {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String username;
+
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "team_name")
+    private String teamName;
+
+}
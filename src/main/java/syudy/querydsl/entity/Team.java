@@ -1,6 +1,7 @@
 package syudy.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -18,6 +19,10 @@ public class Team {
     @Column(name = "team_id")
     private Long id;
 
+    /* 팀 이름 변경 등 동시 수정 감지용 버전 (Member 와 동일하게 낙관적 락) */
+    @Version
+    private Long version;
+
     private String name;
 
     @OneToMany(mappedBy = "team")
@@ -28,7 +33,15 @@ public class Team {
     }
 
     public void addMember(Member member) {
-        this.members.add(member);
+        if (Hibernate.isInitialized(this.members)) {
+            this.members.add(member);
+        }
+    }
+
+    public void removeMember(Member member) {
+        if (Hibernate.isInitialized(this.members)) {
+            this.members.remove(member);
+        }
     }
 
 }
\ No newline at end of file
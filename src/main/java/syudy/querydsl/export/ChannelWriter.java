@@ -0,0 +1,72 @@
+package syudy.querydsl.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/* FileChannel 앞단의 고정 크기 direct 버퍼, 버퍼가 가득 찰 때만 write 시스템 콜 발생 */
+class ChannelWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    ChannelWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void putByte(byte value) throws IOException {
+        ensureRemaining(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+}
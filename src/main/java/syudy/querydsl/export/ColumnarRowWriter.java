@@ -0,0 +1,121 @@
+package syudy.querydsl.export;
+
+import syudy.querydsl.dto.MemberTeamDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    컬럼 단위 바이너리 포맷 (big-endian)
+
+        file   : MAGIC(int) VERSION(int) block* END(int 0)
+        block  : rowCount(int)
+                 memberId  long[rowCount]   (null : -1)
+                 age       int[rowCount]
+                 teamId    long[rowCount]   (null : -1)
+                 userName  string[rowCount]
+                 teamDict  dictSize(int) string[dictSize]
+                 teamName  int[rowCount]    (teamDict index, null : -1)
+        string : length(int, null : -1) utf-8 bytes
+
+    블록 크기만큼만 메모리에 모았다가 컬럼별로 기록, 팀 이름은 블록마다 사전 인코딩
+*/
+class ColumnarRowWriter implements RowWriter {
+
+    static final int MAGIC = 0x4D54_4443; // "MTDC"
+    static final int VERSION = 1;
+    static final int BLOCK_SIZE = 4_096;
+
+    private static final long NULL_ID = -1L;
+
+    private final ChannelWriter out;
+
+    private final long[] memberIds = new long[BLOCK_SIZE];
+    private final int[] ages = new int[BLOCK_SIZE];
+    private final long[] teamIds = new long[BLOCK_SIZE];
+    private final String[] userNames = new String[BLOCK_SIZE];
+    private final String[] teamNames = new String[BLOCK_SIZE];
+    private int rowCount;
+
+    ColumnarRowWriter(Path path) throws IOException {
+        this.out = new ChannelWriter(path);
+        this.out.putInt(MAGIC);
+        this.out.putInt(VERSION);
+    }
+
+    @Override
+    public void write(MemberTeamDto row) throws IOException {
+        memberIds[rowCount] = row.getMemberId() == null ? NULL_ID : row.getMemberId();
+        ages[rowCount] = row.getAge();
+        teamIds[rowCount] = row.getTeamId() == null ? NULL_ID : row.getTeamId();
+        userNames[rowCount] = row.getUserName();
+        teamNames[rowCount] = row.getTeamName();
+        rowCount++;
+
+        if (rowCount == BLOCK_SIZE) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowCount > 0) {
+                writeBlock();
+            }
+            out.putInt(0);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        out.putInt(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            out.putLong(memberIds[i]);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            out.putInt(ages[i]);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            out.putLong(teamIds[i]);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            putString(userNames[i]);
+        }
+
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final int[] teamNameIndexes = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            teamNameIndexes[i] = teamNames[i] == null ? -1 : dictionary.computeIfAbsent(teamNames[i], name -> dictionary.size());
+        }
+        final String[] entries = new String[dictionary.size()];
+        dictionary.forEach((name, index) -> entries[index] = name);
+        out.putInt(entries.length);
+        for (String entry : entries) {
+            putString(entry);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            out.putInt(teamNameIndexes[i]);
+        }
+
+        Arrays.fill(userNames, 0, rowCount, null);
+        Arrays.fill(teamNames, 0, rowCount, null);
+        rowCount = 0;
+    }
+
+    private void putString(String value) throws IOException {
+        if (value == null) {
+            out.putInt(-1);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.putBytes(bytes);
+    }
+
+}
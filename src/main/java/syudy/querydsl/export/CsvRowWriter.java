@@ -0,0 +1,52 @@
+package syudy.querydsl.export;
+
+import syudy.querydsl.dto.MemberTeamDto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/* memberId,userName,age,teamId,teamName (RFC 4180, null 은 빈 값) */
+class CsvRowWriter implements RowWriter {
+
+    private static final String HEADER = "memberId,userName,age,teamId,teamName\n";
+
+    private final ChannelWriter out;
+    private final StringBuilder line = new StringBuilder(128);
+
+    CsvRowWriter(Path path) throws IOException {
+        this.out = new ChannelWriter(path);
+        this.out.putBytes(HEADER.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(MemberTeamDto row) throws IOException {
+        line.setLength(0);
+        appendValue(row.getMemberId()).append(',');
+        appendText(row.getUserName()).append(',');
+        line.append(row.getAge()).append(',');
+        appendValue(row.getTeamId()).append(',');
+        appendText(row.getTeamName()).append('\n');
+        out.putBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private StringBuilder appendValue(Long value) {
+        return value == null ? line : line.append(value.longValue());
+    }
+
+    private StringBuilder appendText(String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+}
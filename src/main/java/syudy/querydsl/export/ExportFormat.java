@@ -0,0 +1,33 @@
+package syudy.querydsl.export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public enum ExportFormat {
+
+    CSV("csv") {
+        @Override
+        RowWriter open(Path path) throws IOException {
+            return new CsvRowWriter(path);
+        }
+    },
+    COLUMNAR("mtdc") {
+        @Override
+        RowWriter open(Path path) throws IOException {
+            return new ColumnarRowWriter(path);
+        }
+    };
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract RowWriter open(Path path) throws IOException;
+
+}
@@ -0,0 +1,20 @@
+package syudy.querydsl.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class ExportResult {
+
+    /* 파티션(PK 구간) 순서대로 나뉜 파일 */
+    private List<Path> files;
+    private long rowCount;
+    private long elapsedMillis;
+
+}
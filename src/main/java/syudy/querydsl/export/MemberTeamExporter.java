@@ -0,0 +1,109 @@
+package syudy.querydsl.export;
+
+import com.mysema.commons.lang.CloseableIterator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.dto.IdRange;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+    search 결과(MemberTeamDto) 대량 내보내기
+
+        - fetch() 로 리스트를 만들지 않고 forward-only 커서에서 읽은 row 를 바로 파일에 기록 --> 메모리 사용량 일정
+        - member_id 구간(파티션) 마다 별도의 스레드, 트랜잭션, 파일로 병렬 처리 --> 코어 수만큼 확장
+        - 검색용 동시성 제한기(limiter)는 거치지 않음, 배치 작업이라 partitions 로 직접 동시성 조절
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberTeamExporter {
+
+    private final MemberRepository memberRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public ExportResult export(MemberSearchCondition condition, Path directory, ExportFormat format, int partitions) throws IOException {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive : " + partitions);
+        }
+        final long start = System.currentTimeMillis();
+        Files.createDirectories(directory);
+
+        final IdRange memberIdRange = memberRepository.findMemberIdRange();
+        if (memberIdRange == null) {
+            return new ExportResult(Collections.emptyList(), 0L, System.currentTimeMillis() - start);
+        }
+
+        final List<IdRange> ranges = memberIdRange.split(partitions);
+        final ExecutorService executor = Executors.newFixedThreadPool(ranges.size());
+        try {
+            final List<Path> files = new ArrayList<>();
+            final List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < ranges.size(); i++) {
+                final IdRange range = ranges.get(i);
+                final Path file = directory.resolve(String.format("member-team-%03d.%s", i, format.getExtension()));
+                files.add(file);
+                futures.add(executor.submit(() -> exportPartition(condition, range, file, format)));
+            }
+
+            long rowCount = 0L;
+            for (Future<Long> future : futures) {
+                rowCount += await(future);
+            }
+            final ExportResult result = new ExportResult(files, rowCount, System.currentTimeMillis() - start);
+            log.info(" --> Export : {}", result);
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long exportPartition(MemberSearchCondition condition, IdRange range, Path file, ExportFormat format) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            long rowCount = 0L;
+            try (CloseableIterator<MemberTeamDto> rows = memberRepository.iterateSearch(condition, range);
+                 RowWriter writer = format.open(file)) {
+                while (rows.hasNext()) {
+                    writer.write(rows.next());
+                    rowCount++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rowCount;
+        });
+    }
+
+    private long await(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("export failed", e.getCause());
+        }
+    }
+
+}
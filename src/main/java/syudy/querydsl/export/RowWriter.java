@@ -0,0 +1,12 @@
+package syudy.querydsl.export;
+
+import syudy.querydsl.dto.MemberTeamDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface RowWriter extends Closeable {
+
+    void write(MemberTeamDto row) throws IOException;
+
+}
@@ -0,0 +1,16 @@
+package syudy.querydsl.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class ImportError {
+
+    private long lineNumber;
+    private String message;
+    private String line;
+
+}
@@ -0,0 +1,38 @@
+package syudy.querydsl.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "errors")
+public class ImportResult {
+
+    private long importedRows;
+    private long createdTeams;
+    private long errorCount;
+    /* 검증 실패 row (최대 MemberImporter.MAX_REPORTED_ERRORS 건까지만 보관) */
+    private List<ImportError> errors;
+    private long elapsedMillis;
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? importedRows : importedRows * 1000 / elapsedMillis;
+    }
+
+    /* 검증 오류 리포트, lineNumber<TAB>message<TAB>line */
+    public void writeErrorReport(Path path) throws IOException {
+        final List<String> lines = errors.stream()
+                                         .map(error -> error.getLineNumber() + "\t" + error.getMessage() + "\t" + error.getLine())
+                                         .collect(Collectors.toList());
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+}
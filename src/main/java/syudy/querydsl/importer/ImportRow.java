@@ -0,0 +1,15 @@
+package syudy.querydsl.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+class ImportRow {
+
+    private long memberId;
+    private String userName;
+    private int age;
+    private Long teamId;
+
+}
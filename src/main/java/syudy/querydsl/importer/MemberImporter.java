@@ -0,0 +1,276 @@
+package syudy.querydsl.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeType;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/*
+    회원/팀 대량 등록 (입력 파일 : userName,age,teamName 한 줄에 한 명, 첫 줄 헤더는 생략 가능)
+
+        1. 호출한 스레드가 producer : 파일을 읽고 검증, 팀 이름 -> id 는 메모리 Map 으로 변환 (없는 팀은 바로 생성)
+        2. id 는 hibernate_sequence 에서 블록 단위로 미리 할당 --> 배치마다 서로 겹치지 않는 id 구간
+        3. writer 스레드들이 BATCH_SIZE 단위로 JDBC batch insert, 배치마다 트랜잭션 한번
+           (영속성 컨텍스트, 변경감지를 거치지 않음)
+        4. 검증에 실패한 줄은 건너뛰고 ImportResult 의 오류 리포트로 반환
+        5. 엔티티 리스너를 거치지 않기 때문에 등록한 팀/회원 id 는 ChangeFeed 에 직접 발행 (배치 커밋 후)
+           --> 캐시, read model 이 import 된 회원도 반영
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberImporter {
+
+    static final int BATCH_SIZE = 1_000;
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final String HEADER_PREFIX = "userName,";
+    private static final String SELECT_TEAMS = "select team_id, name from team order by team_id";
+    private static final String INSERT_TEAM = "insert into team (team_id, version, name) values (?, 0, ?)";
+    private static final String INSERT_MEMBER = "insert into member (member_id, version, username, age, team_id) values (?, 0, ?, ?, ?)";
+
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final String TEAM = Team.class.getSimpleName();
+
+    /* writer 종료 신호 */
+    private static final List<ImportRow> END = Collections.emptyList();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ChangeFeed changeFeed;
+
+    public ImportResult importFile(Path file, int writers) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importLines(reader.lines().iterator(), writers);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* 파일 대신 생성한 데이터(seed 등)를 같은 파이프라인으로 등록할 때 사용 */
+    public ImportResult importLines(Iterator<String> lines, int writers) {
+        if (writers <= 0) {
+            throw new IllegalArgumentException("writers must be positive : " + writers);
+        }
+        final long start = System.currentTimeMillis();
+        final BlockingQueue<List<ImportRow>> queue = new ArrayBlockingQueue<>(writers * 2);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+
+        final List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            futures.add(executor.submit(() -> write(queue, failure)));
+        }
+
+        final Map<String, Long> teamIds = loadTeamIds();
+        final SequenceIdAllocator ids = new SequenceIdAllocator(jdbcTemplate, BATCH_SIZE);
+        final List<ImportError> errors = new ArrayList<>();
+        long errorCount = 0L;
+        long createdTeams = 0L;
+
+        try {
+            List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+            long lineNumber = 0L;
+            while (lines.hasNext() && failure.get() == null) {
+                final String line = lines.next();
+                lineNumber++;
+                if (line.isEmpty() || (lineNumber == 1L && line.startsWith(HEADER_PREFIX))) {
+                    continue;
+                }
+
+                final List<String> fields = splitCsv(line);
+                final String error = validate(fields);
+                if (error != null) {
+                    errorCount++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(new ImportError(lineNumber, error, line));
+                    }
+                    continue;
+                }
+
+                final String teamName = fields.get(2);
+                Long teamId = null;
+                if (!teamName.isEmpty()) {
+                    teamId = teamIds.get(teamName);
+                    if (teamId == null) {
+                        teamId = ids.next();
+                        jdbcTemplate.update(INSERT_TEAM, teamId, teamName);
+                        changeFeed.publish(TEAM, ChangeType.INSERT, teamId, Collections.emptySet());
+                        teamIds.put(teamName, teamId);
+                        createdTeams++;
+                    }
+                }
+
+                batch.add(new ImportRow(ids.next(), fields.get(0), Integer.parseInt(fields.get(1).trim()), teamId));
+                if (batch.size() == BATCH_SIZE) {
+                    put(queue, batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                put(queue, batch);
+            }
+        } finally {
+            for (int i = 0; i < writers; i++) {
+                put(queue, END);
+            }
+            executor.shutdown();
+        }
+
+        long importedRows = 0L;
+        for (Future<Long> future : futures) {
+            importedRows += await(future);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        final ImportResult result = new ImportResult(importedRows, createdTeams, errorCount, errors, System.currentTimeMillis() - start);
+        log.info(" --> Import : {} ({} rows/s)", result, result.getRowsPerSecond());
+        return result;
+    }
+
+    private long write(BlockingQueue<List<ImportRow>> queue, AtomicReference<RuntimeException> failure) throws InterruptedException {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long written = 0L;
+        while (true) {
+            final List<ImportRow> batch = queue.take();
+            if (batch == END) {
+                return written;
+            }
+            /* 다른 writer 가 실패했으면 producer 가 막히지 않도록 큐만 비움 */
+            if (failure.get() != null) {
+                continue;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertMembers(batch));
+                written += batch.size();
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void insertMembers(List<ImportRow> batch) {
+        jdbcTemplate.batchUpdate(INSERT_MEMBER, batch, batch.size(), (ps, row) -> {
+            ps.setLong(1, row.getMemberId());
+            ps.setString(2, row.getUserName());
+            ps.setInt(3, row.getAge());
+            if (row.getTeamId() == null) {
+                ps.setNull(4, Types.BIGINT);
+            } else {
+                ps.setLong(4, row.getTeamId());
+            }
+        });
+        /* 트랜잭션 안이라 커밋된 뒤에 배치마다 이벤트 하나로 기록됨 */
+        changeFeed.publish(MEMBER, ChangeType.INSERT, batch.stream().map(ImportRow::getMemberId).collect(Collectors.toList()), Collections.emptySet());
+    }
+
+    private Map<String, Long> loadTeamIds() {
+        final Map<String, Long> teamIds = new HashMap<>();
+        jdbcTemplate.query(SELECT_TEAMS, rs -> {
+            teamIds.putIfAbsent(rs.getString("name"), rs.getLong("team_id"));
+        });
+        return teamIds;
+    }
+
+    private String validate(List<String> fields) {
+        if (fields.size() != 3) {
+            return "expected 3 columns (userName,age,teamName) but was " + fields.size();
+        }
+        if (fields.get(0).isEmpty()) {
+            return "userName is empty";
+        }
+        if (fields.get(0).length() > MAX_NAME_LENGTH || fields.get(2).length() > MAX_NAME_LENGTH) {
+            return "name is longer than " + MAX_NAME_LENGTH;
+        }
+        try {
+            if (Integer.parseInt(fields.get(1).trim()) < 0) {
+                return "age is negative";
+            }
+        } catch (NumberFormatException e) {
+            return "age is not a number : " + fields.get(1);
+        }
+        return null;
+    }
+
+    /* 큰따옴표로 감싼 값(쉼표, "" 포함) 지원 */
+    static List<String> splitCsv(String line) {
+        final List<String> fields = new ArrayList<>(3);
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void put(BlockingQueue<List<ImportRow>> queue, List<ImportRow> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("import interrupted", e);
+        }
+    }
+
+    private long await(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("import writer failed", e.getCause());
+        }
+    }
+
+}
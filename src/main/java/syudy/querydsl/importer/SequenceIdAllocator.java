@@ -0,0 +1,32 @@
+package syudy.querydsl.importer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/*
+    엔티티(@GeneratedValue)와 같은 hibernate_sequence 에서 id 를 미리 블록 단위로 받아옴
+        --> JDBC 로 직접 insert 해도 JPA 로 저장한 id 와 겹치지 않음, row 마다 시퀀스 조회 X (H2 SYSTEM_RANGE 사용)
+*/
+class SequenceIdAllocator {
+
+    private static final String NEXT_VALUES = "select next value for hibernate_sequence from system_range(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+    private final Deque<Long> ids = new ArrayDeque<>();
+
+    SequenceIdAllocator(JdbcTemplate jdbcTemplate, int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+    }
+
+    long next() {
+        if (ids.isEmpty()) {
+            ids.addAll(jdbcTemplate.queryForList(NEXT_VALUES, Long.class, blockSize));
+        }
+        return ids.poll();
+    }
+
+}
@@ -0,0 +1,27 @@
+package syudy.querydsl.readmodel;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.dto.QMemberTeamDto;
+import syudy.querydsl.entity.QMemberTeamView;
+import syudy.querydsl.repository.MemberSearchPredicates;
+
+/* member_team_view 검색에 쓰는 projection, predicate (조건 규칙은 MemberRepository 검색과 같은 MemberSearchPredicates) */
+final class MemberTeamViewCatalog {
+
+    private static final QMemberTeamView VIEW = QMemberTeamView.memberTeamView;
+
+    static final QMemberTeamDto MEMBER_TEAM_DTO = new QMemberTeamDto(VIEW.memberId, VIEW.username, VIEW.age, VIEW.teamId, VIEW.teamName);
+
+    private static final MemberSearchPredicates PREDICATES = new MemberSearchPredicates(VIEW.username, VIEW.teamName, VIEW.age);
+
+    private MemberTeamViewCatalog() {
+    }
+
+    /* view 에서 조회하는 검색 쿼리, 조건 값까지 바인딩 */
+    static JPAQuery<MemberTeamDto> searchQuery(JPAQuery<MemberTeamDto> query, MemberSearchCondition condition) {
+        return MemberSearchPredicates.bind(query.from(VIEW).where(PREDICATES.predicate(condition)), condition);
+    }
+
+}
@@ -0,0 +1,38 @@
+package syudy.querydsl.readmodel;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    member_team_view 상태 확인 / 재생성 (GET, POST /actuator/memberteamview)
+        - 원본과 어긋났을 때 (ChangeFeed 를 거치지 않은 변경, 갱신 실패) fullRebuildInterval 을 기다리지 않고 바로 복구
+*/
+@Endpoint(id = "memberteamview")
+@RequiredArgsConstructor
+public class MemberTeamViewEndpoint {
+
+    private final MemberTeamViewMaintainer maintainer;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        final Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ready", maintainer.isReady());
+        status.put("refreshedAt", maintainer.getRefreshedAt());
+        status.put("appliedMembers", maintainer.getAppliedMembers());
+        status.put("viewSearches", maintainer.getViewSearches());
+        status.put("fallbackSearches", maintainer.getFallbackSearches());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        maintainer.rebuild();
+        return status();
+    }
+
+}
@@ -0,0 +1,243 @@
+package syudy.querydsl.readmodel;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.cdc.ChangeEvent;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeSubscription;
+import syudy.querydsl.cdc.ChangeType;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.fair.FairSearchScheduler;
+import syudy.querydsl.support.fair.TenantContext;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static syudy.querydsl.readmodel.MemberTeamViewCatalog.MEMBER_TEAM_DTO;
+import static syudy.querydsl.readmodel.MemberTeamViewCatalog.searchQuery;
+
+/*
+    member_team_view 를 ChangeFeed 로 증분 갱신하고, search 를 join 없이 이 테이블 하나로 처리 (querydsl.read-model.enabled=true 일 때만 등록)
+
+        - 회원 이벤트 (insert, 이름/나이 변경, changeTeam, bulk update, archive 삭제) : 해당 member_id 행을 지우고 member + team 에서 다시 insert
+        - 팀 이름 변경 : 그 팀 회원들의 team_name 만 update
+        - 갱신은 전용 스레드 하나에서 refreshInterval 마다, 한 번 반영할 변경은 트랜잭션 하나
+        - overrun (구독이 너무 뒤처짐) 이거나 fullRebuildInterval 이 지나면 전체 재생성 (rebuild, actuator 의 memberteamview 로 직접 실행 가능)
+        - 재생성 전에 구독을 먼저 시작하기 때문에 재생성 중에 커밋된 변경도 다음 갱신에서 반영 (같은 행을 다시 만들어도 결과는 같음)
+        - 결과는 커밋 후 최대 refreshInterval 만큼 늦을 수 있음 --> 최신 값이 꼭 필요한 곳은 MemberRepository 사용
+        - view 조회도 MemberRepository.search 와 같이 FairSearchScheduler, limiter 를 거치고 search 의 timeout, maxRows 를 적용
+*/
+@Slf4j
+public class MemberTeamViewMaintainer implements DisposableBean {
+
+    private static final String COLUMNS = "member_id, username, age, team_id, team_name";
+    private static final String SELECT_MEMBER_TEAM = "select m.member_id, m.username, m.age, t.team_id, t.name"
+            + " from member m left join team t on t.team_id = m.team_id";
+    private static final String INSERT = "insert into member_team_view (" + COLUMNS + ") " + SELECT_MEMBER_TEAM;
+    private static final String DELETE = "delete from member_team_view";
+    private static final String UPDATE_TEAM_NAME = "update member_team_view set team_name = (select t.name from team t where t.team_id = ?)"
+            + " where team_id = ?";
+    private static final int POLL_SIZE = 10_000;
+
+    /* QueryTimeoutPolicy 의 메서드별 설정 이름, MemberRepository.search 와 같은 설정 사용 */
+    private static final String SEARCH = "search";
+
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final String TEAM = Team.class.getSimpleName();
+    private static final String TEAM_NAME = "name";
+
+    private final ReadModelProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeed changeFeed;
+    private final JPAQueryFactory query;
+    private final MemberRepository memberRepository;
+    private final FairSearchScheduler scheduler;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final QueryTimeoutPolicy timeouts;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-team-view");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean ready;
+    private volatile long refreshedAt;
+    private ChangeSubscription subscription;
+    private long rebuiltAt;
+
+    private final AtomicLong viewSearches = new AtomicLong();
+    private final AtomicLong fallbackSearches = new AtomicLong();
+    private final AtomicLong appliedMembers = new AtomicLong();
+
+    public MemberTeamViewMaintainer(ReadModelProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed, JPAQueryFactory query,
+                                    MemberRepository memberRepository, FairSearchScheduler scheduler, AdaptiveConcurrencyLimiter limiter,
+                                    QueryTimeoutPolicy timeouts, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeFeed = changeFeed;
+        this.query = query;
+        this.memberRepository = memberRepository;
+        this.scheduler = scheduler;
+        this.limiter = limiter;
+        this.timeouts = timeouts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /* 첫 재생성도 갱신 스레드에서 실행 (기동을 막지 않음, 그동안은 join 으로 조회) */
+    public void start() {
+        final long interval = properties.getRefreshInterval().toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0L, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        /* view 에는 member 만 있으므로 archive 포함 검색은 기존 경로로 */
+        if (!ready || condition.isIncludeArchived()
+                || System.currentTimeMillis() - refreshedAt > properties.getMaxStaleness().toMillis()) {
+            fallbackSearches.incrementAndGet();
+            return memberRepository.search(condition);
+        }
+        viewSearches.incrementAndGet();
+        return scheduler.execute(TenantContext.resolve(), () -> limiter.execute(() -> fetchSearch(condition)));
+    }
+
+    public synchronized void refresh() {
+        final long now = System.currentTimeMillis();
+        if (subscription == null || now - rebuiltAt >= properties.getFullRebuildInterval().toMillis()) {
+            rebuild();
+            return;
+        }
+
+        final Set<Long> memberIds = new HashSet<>();
+        final Set<Long> renamedTeamIds = new HashSet<>();
+        List<ChangeEvent> events;
+        while (!(events = subscription.poll(POLL_SIZE)).isEmpty()) {
+            for (ChangeEvent event : events) {
+                if (MEMBER.equals(event.getEntity())) {
+                    event.getIds().forEach(id -> memberIds.add((Long) id));
+                } else if (TEAM.equals(event.getEntity()) && isRenamed(event)) {
+                    event.getIds().forEach(id -> renamedTeamIds.add((Long) id));
+                }
+            }
+        }
+        if (subscription.checkAndClearOverrun()) {
+            rebuild();
+            return;
+        }
+        if (!memberIds.isEmpty() || !renamedTeamIds.isEmpty()) {
+            transactionTemplate.execute(status -> {
+                applyTeams(renamedTeamIds);
+                applyMembers(memberIds);
+                return null;
+            });
+            appliedMembers.addAndGet(memberIds.size());
+        }
+        refreshedAt = now;
+    }
+
+    /* 전체 재생성, 커밋 전까지 조회는 이전 행을 그대로 읽음 */
+    public synchronized void rebuild() {
+        final long now = System.currentTimeMillis();
+        final ChangeSubscription rebuildSubscription = changeFeed.subscribe();
+        final Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE);
+            return jdbcTemplate.update(INSERT);
+        });
+
+        subscription = rebuildSubscription;
+        rebuiltAt = now;
+        refreshedAt = now;
+        ready = true;
+        log.info("member_team_view rebuilt: {} rows, {}ms", rows, System.currentTimeMillis() - now);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    public long getViewSearches() {
+        return viewSearches.get();
+    }
+
+    public long getFallbackSearches() {
+        return fallbackSearches.get();
+    }
+
+    public long getAppliedMembers() {
+        return appliedMembers.get();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private List<MemberTeamDto> fetchSearch(MemberSearchCondition condition) {
+        final List<MemberTeamDto> results = timeouts.apply(SEARCH, searchQuery(query.select(MEMBER_TEAM_DTO), condition))
+                                                    .limit(timeouts.rowLimit())
+                                                    .fetch();
+        timeouts.checkRows(SEARCH, results);
+        return results;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            /* 다음 주기에 다시 시도, 그동안 maxStaleness 가 지나면 join 으로 조회 */
+            log.warn("member_team_view refresh failed", e);
+        }
+    }
+
+    /* update 이벤트는 name 이 바뀐 경우만 (변경 필드를 모르면 바뀐 것으로 취급), insert 된 팀은 회원 이벤트로 반영됨 */
+    private boolean isRenamed(ChangeEvent event) {
+        return event.getType() == ChangeType.UPDATE
+                && (event.getChangedFields().isEmpty() || event.getChangedFields().contains(TEAM_NAME));
+    }
+
+    private void applyTeams(Set<Long> teamIds) {
+        final List<Object[]> parameters = new ArrayList<>(teamIds.size());
+        for (Long teamId : teamIds) {
+            parameters.add(new Object[]{teamId, teamId});
+        }
+        if (!parameters.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_TEAM_NAME, parameters);
+        }
+    }
+
+    /* 지워진 회원은 insert 할 행이 없으므로 delete 만 남음 */
+    private void applyMembers(Set<Long> memberIds) {
+        final List<Long> ids = new ArrayList<>(memberIds);
+        Collections.sort(ids);
+        for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+            final Object[] chunk = ids.subList(from, Math.min(from + properties.getChunkSize(), ids.size())).toArray();
+            final String placeholders = String.join(", ", Collections.nCopies(chunk.length, "?"));
+            jdbcTemplate.update(DELETE + " where member_id in (" + placeholders + ")", chunk);
+            jdbcTemplate.update(INSERT + " where m.member_id in (" + placeholders + ")", chunk);
+        }
+    }
+
+}
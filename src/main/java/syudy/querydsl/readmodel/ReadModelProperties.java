@@ -0,0 +1,28 @@
+package syudy.querydsl.readmodel;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.read-model")
+public class ReadModelProperties {
+
+    private boolean enabled;
+
+    /* ChangeFeed 에 쌓인 변경을 member_team_view 에 반영하는 주기 */
+    private Duration refreshInterval = Duration.ofMillis(200);
+
+    /* ChangeFeed 를 거치지 않는 변경 (importer, seed, 직접 실행한 SQL) 까지 반영하기 위한 전체 재생성 주기 */
+    private Duration fullRebuildInterval = Duration.ofMinutes(10);
+
+    /* 마지막 갱신 후 이 시간이 지나도록 갱신하지 못하면 (갱신 실패 등) member / team join 으로 조회 */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /* 변경된 회원을 다시 읽어서 반영할 때 in 절 하나에 넣는 id 수 */
+    private int chunkSize = 512;
+
+}
@@ -1,31 +1,43 @@
 package syudy.querydsl.repository;
 
-import com.querydsl.core.BooleanBuilder;
-import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.springframework.stereotype.Repository;
 import syudy.querydsl.dto.MemberSearchCondition;
 import syudy.querydsl.dto.MemberTeamDto;
-import syudy.querydsl.dto.QMemberTeamDto;
 import syudy.querydsl.entity.Member;
 import syudy.querydsl.entity.QMember;
 import syudy.querydsl.entity.QTeam;
+import syudy.querydsl.support.cache.MemberUserNameCache;
 
 import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.NonUniqueResultException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
-import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
-import static org.hibernate.annotations.common.util.StringHelper.isNotEmpty;
+import static syudy.querydsl.repository.MemberSearchCatalog.MEMBER_TEAM_DTO;
+import static syudy.querydsl.repository.MemberSearchCatalog.bind;
+import static syudy.querydsl.repository.MemberSearchCatalog.predicate;
 
 @Repository
 @RequiredArgsConstructor
 public class MemberJpaRepository {
 
+    private static final int IN_CHUNK_SIZE = 512;
+
     /* EntityManager 트랜잭션 단위로 분리해서 동작하기 때문에 동시성 문제 X (프록시 사용) JPA책 13-1 참고 */
     private final EntityManager em;
     private final JPAQueryFactory query;
+    private final MemberUserNameCache userNameCache;
 
     public void save(Member member) {
         em.persist(member);
@@ -36,6 +48,57 @@ public class MemberJpaRepository {
         return Optional.ofNullable(member);
     }
 
+    /*
+        id 목록 조회, 요청한 id 순서대로 반환 (없는 id, null 은 제외)
+            - 영속성 컨텍스트, 2차 캐시에 이미 있는 회원은 DB 조회 X
+            - 나머지는 IN_CHUNK_SIZE 개씩 나눠서 in 쿼리
+            - in 파라미터 개수는 hibernate.query.in_clause_parameter_padding 이 2의 거듭제곱으로 맞춤
+              --> SQL 종류가 log2(IN_CHUNK_SIZE) 개로 제한되어 statement, plan 캐시 재사용
+    */
+    public List<Member> findAllByIds(List<Long> ids) {
+        final Map<Long, Member> found = new HashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            final Member cached = findCached(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        final QMember member = QMember.member;
+        for (int from = 0; from < missing.size(); from += IN_CHUNK_SIZE) {
+            final List<Long> chunk = missing.subList(from, Math.min(missing.size(), from + IN_CHUNK_SIZE));
+            for (Member fetched : query.selectFrom(member).where(member.id.in(chunk)).fetch()) {
+                found.put(fetched.getId(), fetched);
+            }
+        }
+
+        final List<Member> members = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            final Member fetched = found.get(id);
+            if (fetched != null) {
+                members.add(fetched);
+            }
+        }
+        return members;
+    }
+
+    private Member findCached(Long id) {
+        final SessionImplementor session = em.unwrap(SessionImplementor.class);
+        final EntityPersister persister = session.getFactory().getMetamodel().entityPersister(Member.class);
+        final Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            return (Member) managed;
+        }
+        /* 2차 캐시에 있으면 em.find 는 DB 를 조회하지 않음 */
+        return em.getEntityManagerFactory().getCache().contains(Member.class, id) ? em.find(Member.class, id) : null;
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                  .getResultList();
@@ -46,106 +109,78 @@ public class MemberJpaRepository {
     }
 
     public Member findByUserName(String name) {
-        return em.createQuery("select m from Member m where m.username = :username", Member.class)
-                 .setParameter("username", name)
-                 .getSingleResult();
+        final List<Member> members = findAllByUserName(name, () -> em.createQuery("select m from Member m where m.username = :username", Member.class)
+                                                                     .setParameter("username", name)
+                                                                     .setMaxResults(2)
+                                                                     .getResultList());
+        /* getSingleResult 와 같은 예외 */
+        if (members.isEmpty()) {
+            throw new NoResultException("No entity found for query");
+        }
+        if (members.size() > 1) {
+            throw new NonUniqueResultException("query did not return a unique result: " + members.size());
+        }
+        return members.get(0);
     }
 
     public Member findByUserNameUsingQuerydsl(String name) {
         final QMember member = QMember.member;
-        return query.selectFrom(member).where(member.username.eq(name)).fetchOne();
-    }
-
-    public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        final QTeam team = QTeam.team;
-        final QMember member = QMember.member;
-        final QMemberTeamDto memberTeamDto = new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username.as("userName"),
-                member.age,
-                team.id.as("teamId"),
-                team.name.as("teamName")
-        );
-
-        final BooleanBuilder builder = new BooleanBuilder();
-        builder.and(eqUserName(member, condition.getUserName()));
-        builder.and(eqTeamName(team, condition.getTeamName()));
-        builder.and(goeAge(member, condition.getAgeGoe()));
-        builder.and(leoAge(member, condition.getAgeLoe()));
-
-        return query.select(
-                        new QMemberTeamDto(
-                                member.id.as("memberId"),
-                                member.username.as("userName"),
-                                member.age,
-                                team.id.as("teamId"),
-                                team.name.as("teamName")
-                        )
-                    )
-                    .from(member)
-                    .leftJoin(member.team, team)
-                    .where(
-                        eqTeamName(team, condition.getTeamName()),
-                        eqUserName(member, condition.getUserName()),
-                        goeAge(member, condition.getAgeGoe()),
-                        leoAge(member, condition.getAgeLoe())
-                    )
-                    .fetch();
-    }
-
-    private BooleanExpression eqTeamName(QTeam team, String teamName) {
-        return isEmpty(teamName) ? null : team.name.eq(teamName);
-    }
-
-    private BooleanExpression leoAge(QMember member, Integer age) {
-        return isNotNull(age) ? member.age.loe(age) : null;
-    }
-
-    private BooleanExpression goeAge(QMember member, Integer age) {
-        return isNotNull(age) ? member.age.goe(age) : null;
-    }
-
-    private BooleanExpression eqUserName(QMember member, String userName) {
-        return isEmpty(userName) ? null : member.username.eq(userName);
+        final List<Member> members = findAllByUserName(name, () -> query.selectFrom(member).where(member.username.eq(name)).limit(2).fetch());
+        /* fetchOne 과 같은 예외 */
+        if (members.size() > 1) {
+            throw new com.querydsl.core.NonUniqueResultException();
+        }
+        return members.isEmpty() ? null : members.get(0);
     }
 
-    public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
-        final QMember member = QMember.member;
-        final QTeam team = QTeam.team;
-        final QMemberTeamDto memberTeamDto = new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username.as("userName"),
-                member.age,
-                team.id.as("teamId"),
-                team.name.as("teamName")
-        );
-
-        final BooleanBuilder builder = new BooleanBuilder();
-        if(isNotEmpty(condition.getUserName())) {
-            builder.and(member.username.eq(condition.getUserName()));
+    /*
+        username 으로 최대 2건 조회 (2건이면 중복)
+            - MemberUserNameCache 에 있으면 username 조회 X, 캐시된 id 로 em.find (영속성 컨텍스트, PK 조회)
+              트랜잭션 밖에서는 영속성 컨텍스트가 매번 새로 생기기 때문에 캐시 hit 도 PK 조회 한 번은 DB 를 거침 (username 인덱스 조회보다 가벼울 뿐)
+            - 없는 이름도 캐시 --> 반복되는 없는 이름 조회도 DB 를 거치지 않음
+            - 캐시된 회원이 삭제됐거나 이름이 바뀌었으면 캐시를 지우고 DB 조회, 중복된 이름은 캐시하지 않음
+    */
+    private List<Member> findAllByUserName(String name, Supplier<List<Member>> loader) {
+        if (!userNameCache.isUsable(name)) {
+            return loader.get();
         }
-
-        if(isNotEmpty(condition.getTeamName())) {
-            builder.and(team.name.eq(condition.getTeamName()));
+        final Long cached = userNameCache.get(name);
+        if (cached != null) {
+            if (cached == MemberUserNameCache.NOT_FOUND) {
+                return Collections.emptyList();
+            }
+            final Member member = em.find(Member.class, cached);
+            if (member != null && name.equals(member.getUsername())) {
+                return Collections.singletonList(member);
+            }
+            userNameCache.invalidate(name);
         }
 
-        if(isNotNull(condition.getAgeGoe())) {
-            builder.and(member.age.goe(condition.getAgeGoe()));
+        final long position = userNameCache.position();
+        final List<Member> members = loader.get();
+        if (members.size() <= 1) {
+            userNameCache.put(name, members.isEmpty() ? null : members.get(0).getId(), position);
         }
+        return members;
+    }
 
-        if(isNotNull(condition.getAgeLoe())) {
-            builder.and(member.age.loe(condition.getAgeLoe()));
-        }
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        final QTeam team = QTeam.team;
+        final QMember member = QMember.member;
 
-        return query.select(memberTeamDto)
-                    .from(member)
-                    .leftJoin(member.team, team)
-                    .where(builder)
-                    .fetch();
+        return bind(query.select(MEMBER_TEAM_DTO)
+                         .from(member)
+                         .leftJoin(member.team, team)
+                         .where(predicate(condition)), condition)
+                .fetch();
     }
 
-    private boolean isNotNull(Integer num) {
-        return num != null;
+    /*
+        BooleanBuilder 로 조건을 매번 조립하던 방식, 지금은 search 와 같음
+            - MemberSearchCatalog 에 미리 만들어둔 shape 별 predicate 사용 (BooleanBuilder, QMemberTeamDto 생성 X, Param 바인딩만)
+    */
+    public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
+        return search(condition);
     }
 
 }
@@ -1,18 +1,48 @@
 package syudy.querydsl.repository;
 
+import com.mysema.commons.lang.CloseableIterator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import syudy.querydsl.dto.IdRange;
 import syudy.querydsl.dto.MemberSearchCondition;
 import syudy.querydsl.dto.MemberTeamDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface MemberRepositoryCustom {
 
     List<MemberTeamDto> search(MemberSearchCondition condition);
 
+    List<MemberTeamDto> searchDeduplicated(MemberSearchCondition condition);
+
+    Map<Long, List<MemberTeamDto>> searchGroupByTeam(MemberSearchCondition condition);
+
+    /* 결과를 리스트로 모으지 않고 forward-only 커서로 한건씩 읽음 (반드시 트랜잭션 안에서 사용 후 close) */
+    CloseableIterator<MemberTeamDto> iterateSearch(MemberSearchCondition condition, IdRange memberIdRange);
+
+    IdRange findMemberIdRange();
+
+    /*
+        조건에 맞는 회원을 action 으로 넘기고 개수를 반환, 결과가 많을 것으로 추정되면 커서로 나눠 읽음
+        커서로 읽을 때는 action 이 끝날 때까지 검색 자리를 잡고 있으므로 action 안에서 다시 검색하지 않음 (같은 요청자의 자리를 기다리다 거절될 수 있음)
+    */
+    long forEachSearch(MemberSearchCondition condition, Consumer<MemberTeamDto> action);
+
+    boolean exists(MemberSearchCondition condition);
+
+    /* 조건에 맞는 회원 수, limit 이상이면 limit 까지만 센다 (limit 이 0 이하면 조회 없이 0) */
+    long countUpTo(MemberSearchCondition condition, int limit);
+
     Page<MemberTeamDto> simpleSearch(MemberSearchCondition condition, Pageable pageable);
 
     Page<MemberTeamDto> complexSearch(MemberSearchCondition condition, Pageable pageable);
 
+    /* 나이를 DB 에서 원자적으로 증가, 영속성 컨텍스트에 있는 그 회원만 다시 읽고 다른 엔티티는 그대로 유지 */
+    long increaseAge(Long memberId, int delta);
+
+    /* 팀원 전체를 update 로 이동, 영속성 컨텍스트에 있는 이동 회원과 두 팀만 다시 읽음 */
+    long moveMembers(Long fromTeamId, Long toTeamId);
+
 }
@@ -1,71 +1,354 @@
 package syudy.querydsl.repository;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeType;
+import syudy.querydsl.dto.IdRange;
 import syudy.querydsl.dto.MemberSearchCondition;
 import syudy.querydsl.dto.MemberTeamDto;
 import syudy.querydsl.dto.QMemberTeamDto;
+import syudy.querydsl.entity.Member;
 import syudy.querydsl.entity.QMember;
+import syudy.querydsl.entity.QMemberArchive;
 import syudy.querydsl.entity.QTeam;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.shard.ShardContext;
+import syudy.querydsl.stats.MemberQueryPlanner;
+import syudy.querydsl.support.fair.FairSearchScheduler;
+import syudy.querydsl.support.fair.TenantContext;
+import syudy.querydsl.support.flight.SingleFlight;
+import syudy.querydsl.support.intern.BoundedStringInterner;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.timeout.QueryDeadline;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
 import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
+import static syudy.querydsl.repository.MemberSearchCatalog.ID_RANGE;
+import static syudy.querydsl.repository.MemberSearchCatalog.MEMBER_TEAM_DTO;
+import static syudy.querydsl.repository.MemberSearchCatalog.agePredicate;
+import static syudy.querydsl.repository.MemberSearchCatalog.bind;
+import static syudy.querydsl.repository.MemberSearchCatalog.bindIdRange;
+import static syudy.querydsl.repository.MemberSearchCatalog.predicate;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    private static final int ITERATE_FETCH_SIZE = 1_000;
+    private static final int MOVE_CHUNK_SIZE = 512;
+
+    /* QueryTimeoutPolicy 의 메서드별 설정 이름, complexSearch 는 single-flight key 에도 사용 */
+    private static final String SEARCH = "search";
+    private static final String SEARCH_GROUP_BY_TEAM = "searchGroupByTeam";
+    private static final String FOR_EACH_SEARCH = "forEachSearch";
+    private static final String EXISTS = "exists";
+    private static final String COUNT_UP_TO = "countUpTo";
+    private static final String SIMPLE_SEARCH = "simpleSearch";
+    private static final String COMPLEX_SEARCH = "complexSearch";
+
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final Set<String> AGE_CHANGED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("age", "version")));
+    private static final Set<String> TEAM_CHANGED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("team", "version")));
+
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private JPAQueryFactory query;
 
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private MemberQueryPlanner planner;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private QueryTimeoutPolicy timeouts;
+
+    @Autowired
+    private FairSearchScheduler scheduler;
+
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return schedule(condition, () -> fetchSearch(condition));
+    }
+
+    @Override
+    public List<MemberTeamDto> searchDeduplicated(MemberSearchCondition condition) {
+        return schedule(condition, () -> deduplicateTeamName(fetchSearch(condition), new BoundedStringInterner()));
+    }
+
+    @Override
+    public Map<Long, List<MemberTeamDto>> searchGroupByTeam(MemberSearchCondition condition) {
+        return schedule(condition, () -> fetchSearchGroupByTeam(condition));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachSearch(MemberSearchCondition condition, Consumer<MemberTeamDto> action) {
+        /* 결과가 적으면 한번에 받고 자리를 반납한 뒤 action 실행 (action 안에서 다른 검색을 해도 자리를 기다리지 않음) */
+        if (!planner.streaming(condition)) {
+            final List<MemberTeamDto> results = schedule(condition, () -> fetchForEachSearch(condition));
+            results.forEach(action);
+            return results.size();
+        }
+        return schedule(condition, () -> streamForEachSearch(condition, action));
+    }
+
+    @Override
+    public boolean exists(MemberSearchCondition condition) {
+        return schedule(condition, () -> fetchExists(condition));
+    }
+
+    @Override
+    public long countUpTo(MemberSearchCondition condition, int limit) {
+        /* limit(0) 은 limit 없는 쿼리가 되기 때문에 조회하지 않음 */
+        if (limit <= 0) {
+            return 0L;
+        }
+        return schedule(condition, () -> fetchCountUpTo(condition, limit));
+    }
+
+    @Override
+    public Page<MemberTeamDto> simpleSearch(MemberSearchCondition condition, Pageable pageable) {
+        return schedule(condition, () -> fetchSimpleSearch(condition, pageable));
+    }
+
+    @Override
+    public Page<MemberTeamDto> complexSearch(MemberSearchCondition condition, Pageable pageable) {
+        /* 수정 중인 트랜잭션 안에서는 자기 변경이 보여야 하므로 다른 요청과 결과를 공유하지 않음 */
+        if (TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return schedule(condition, () -> fetchComplexSearch(condition, pageable));
+        }
+        /*
+            complexSearch 는 나이 조건만 사용하므로 나이 조건과 페이지로 key 를 만듦 (요청자가 같으면 이름 조건이 달라도 같은 요청)
+            shard 별로 결과가 다르기 때문에 현재 shard 도 key 에 포함
+            실행은 leader 의 요청자 자리로 하기 때문에 요청자도 key 에 포함 (다른 요청자의 결과를 공유받아 quota 를 우회하지 않도록)
+        */
+        final String tenant = TenantContext.resolve();
+        final List<Object> key = Arrays.asList(COMPLEX_SEARCH, ShardContext.current(), tenant, condition.getAgeGoe(), condition.getAgeLoe(),
+                                               pageable.getOffset(), pageable.getPageSize(), pageable.getSort());
+        return singleFlight.execute(key, () -> schedule(condition, () -> fetchComplexSearch(condition, pageable)));
+    }
+
+    /*
+        요청자(TenantContext, 없으면 SHARED)별 대기열에서 공정하게 순서를 받은 뒤 limiter 로 실행
+            - 요청을 몰아서 보내는 요청자가 있어도 다른 요청자의 요청은 대기열 앞쪽에서 바로 실행됨
+    */
+    private <T> T schedule(MemberSearchCondition condition, Supplier<T> action) {
+        return scheduler.execute(TenantContext.resolve(), () -> limiter.execute(action));
+    }
+
+    private List<MemberTeamDto> fetchSearch(MemberSearchCondition condition) {
+        final List<MemberTeamDto> results = timeouts.apply(SEARCH, searchQuery(condition, query.select(MEMBER_TEAM_DTO)))
+                                                    .limit(timeouts.rowLimit())
+                                                    .fetch();
+        if (condition.isIncludeArchived() && results.size() < timeouts.rowLimit()) {
+            /* JPQL 에 union 이 없어서 archive 는 따로 조회해서 뒤에 붙임 (member 에 있는 회원이 먼저) */
+            results.addAll(fetchArchivedSearch(condition, timeouts.rowLimit() - results.size()));
+        }
+        timeouts.checkRows(SEARCH, results);
+        return results;
+    }
+
+    private List<MemberTeamDto> fetchArchivedSearch(MemberSearchCondition condition, long limit) {
         final QTeam team = QTeam.team;
-        final QMember member = QMember.member;
+        final QMemberArchive memberArchive = QMemberArchive.memberArchive;
         final QMemberTeamDto memberTeamDto = new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username.as("userName"),
-                member.age,
+                memberArchive.id.as("memberId"),
+                memberArchive.username.as("userName"),
+                memberArchive.age,
                 team.id.as("teamId"),
                 team.name.as("teamName")
         );
 
-        return query.select(memberTeamDto)
-                    .from(member)
-                    .leftJoin(member.team, team)
-                    .where(
-                            eqTeamName(team, condition.getTeamName()),
-                            eqUserName(member, condition.getUserName()),
-                            goeAge(member, condition.getAgeGoe()),
-                            leoAge(member, condition.getAgeLoe())
-                    )
-                    .fetch();
+        return timeouts.apply(SEARCH, query.select(memberTeamDto))
+                       .from(memberArchive)
+                       .leftJoin(memberArchive.team, team)
+                       .where(
+                               eqTeamName(team, condition.getTeamName()),
+                               eqUserName(memberArchive, condition.getUserName()),
+                               goeAge(memberArchive, condition.getAgeGoe()),
+                               leoAge(memberArchive, condition.getAgeLoe())
+                       )
+                       .limit(limit)
+                       .fetch();
+    }
+
+    private List<MemberTeamDto> fetchForEachSearch(MemberSearchCondition condition) {
+        return timeouts.apply(FOR_EACH_SEARCH, searchQuery(condition, query.select(MEMBER_TEAM_DTO)))
+                       .fetch();
+    }
+
+    /*
+        많을 것으로 추정되면 커서로 나눠 읽어서 전체 결과를 메모리에 올리지 않음
+            - 커서를 읽는 동안 action 이 실행되기 때문에 그동안 scheduler, limiter 자리를 잡고 있음
+            - action 안에서 다시 검색하면 같은 요청자의 자리를 하나 더 기다림 --> quota 만큼 동시에 실행 중이면 maxWait 후 거절
+    */
+    private long streamForEachSearch(MemberSearchCondition condition, Consumer<MemberTeamDto> action) {
+        final JPAQuery<MemberTeamDto> search = timeouts.apply(FOR_EACH_SEARCH, searchQuery(condition, query.select(MEMBER_TEAM_DTO)));
+
+        /* 요청이 취소되면 실행 중인 쿼리를 중단하고, 커서를 읽는 중이면 다음 row 에서 멈춤 (트랜잭션 안이라 같은 Session) */
+        final QueryDeadline deadline = QueryDeadline.current();
+        if (deadline != null) {
+            deadline.onCancel(em.unwrap(Session.class)::cancelQuery);
+        }
+        long count = 0L;
+        try (CloseableIterator<MemberTeamDto> iterator = search.setHint(QueryHints.FETCH_SIZE, ITERATE_FETCH_SIZE).iterate()) {
+            while (iterator.hasNext()) {
+                if (deadline != null) {
+                    deadline.check();
+                }
+                action.accept(iterator.next());
+                count++;
+            }
+        } finally {
+            if (deadline != null) {
+                deadline.onCancel(null);
+            }
+        }
+        return count;
+    }
+
+    /*
+        search 의 from/where, 팀 이름 조건의 팀 회원 수가 나이 조건으로 남는 회원 수보다 적을 것으로 추정되면 Team 에서 시작
+        (팀 이름 조건이 있으면 팀이 없는 회원은 어차피 제외되므로 inner join 이어도 결과는 같음)
+    */
+    private <T> JPAQuery<T> searchQuery(MemberSearchCondition condition, JPAQuery<T> select) {
+        final QTeam team = QTeam.team;
+        final QMember member = QMember.member;
+        final JPAQuery<T> from = planner.driveFromTeam(condition)
+                ? select.from(team).join(team.members, member)
+                : select.from(member).leftJoin(member.team, team);
+        return bind(from.where(predicate(condition)), condition);
+    }
+
+    private boolean fetchExists(MemberSearchCondition condition) {
+        /* fetchCount() 는 조건에 맞는 row 를 모두 세지만, select 1 ... limit 1 은 첫 row 를 찾으면 바로 종료 */
+        final Integer one = matching(condition, timeouts.apply(EXISTS, query.selectOne())).fetchFirst();
+        return one != null;
+    }
+
+    private long fetchCountUpTo(MemberSearchCondition condition, int limit) {
+        /*
+            JPQL 은 from 절 서브쿼리(select count(*) from (select ... limit n))를 지원하지 않기 때문에
+            id 만 limit 건까지 조회해서 개수를 셈 --> 조건에 맞는 row 가 아무리 많아도 limit 건에서 멈춤
+        */
+        return matching(condition, timeouts.apply(COUNT_UP_TO, query.select(QMember.member.id))).limit(limit)
+                                                                                              .fetch()
+                                                                                              .size();
+    }
+
+    /* 존재 여부, 개수 확인용 from/where, 팀은 다대일이라 row 수에 영향이 없으므로 teamName 조건이 있을 때만 조인 */
+    private <T> JPAQuery<T> matching(MemberSearchCondition condition, JPAQuery<T> select) {
+        final QTeam team = QTeam.team;
+        final QMember member = QMember.member;
+        final JPAQuery<T> from = select.from(member);
+        if (!isEmpty(condition.getTeamName())) {
+            from.join(member.team, team);
+        }
+        return bind(from.where(predicate(condition)), condition);
+    }
+
+    private Map<Long, List<MemberTeamDto>> fetchSearchGroupByTeam(MemberSearchCondition condition) {
+        final QTeam team = QTeam.team;
+        final QMember member = QMember.member;
+
+        /* teamId 기준으로 묶어서 Map<teamId, List<member>> 로 반환 (팀이 없는 회원은 null key) */
+        final Map<Long, List<MemberTeamDto>> results = timeouts.apply(SEARCH_GROUP_BY_TEAM, bind(query.from(member), condition))
+                                                            .leftJoin(member.team, team)
+                                                            .where(predicate(condition))
+                                                            .limit(timeouts.rowLimit())
+                                                            .transform(groupBy(team.id).as(list(MEMBER_TEAM_DTO)));
+        timeouts.checkRows(SEARCH_GROUP_BY_TEAM, results.values().stream().mapToLong(List::size).sum());
+
+        final BoundedStringInterner interner = new BoundedStringInterner();
+        results.values().forEach(memberTeamDtos -> deduplicateTeamName(memberTeamDtos, interner));
+        return results;
+    }
+
+    /* row 마다 따로 생성된 teamName 을 하나의 인스턴스로 통일 --> 결과 리스트가 붙잡고 있는 heap 감소 */
+    private List<MemberTeamDto> deduplicateTeamName(List<MemberTeamDto> memberTeamDtos, BoundedStringInterner interner) {
+        for (MemberTeamDto memberTeamDto : memberTeamDtos) {
+            memberTeamDto.setTeamName(interner.intern(memberTeamDto.getTeamName()));
+        }
+        return memberTeamDtos;
     }
 
     @Override
-    public Page<MemberTeamDto> simpleSearch(MemberSearchCondition condition, Pageable pageable) {
+    public CloseableIterator<MemberTeamDto> iterateSearch(MemberSearchCondition condition, IdRange memberIdRange) {
         final QTeam team = QTeam.team;
         final QMember member = QMember.member;
-        final QMemberTeamDto memberTeamDto = new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username.as("userName"),
-                member.age,
-                team.id.as("teamId"),
-                team.name.as("teamName")
-        );
-        QueryResults<MemberTeamDto> results = query.select(memberTeamDto)
+
+        /* 대량 조회용, DTO 프로젝션이라 영속성 컨텍스트에 엔티티가 쌓이지 않음 */
+        final JPAQuery<MemberTeamDto> search = query.select(MEMBER_TEAM_DTO)
+                                                    .setHint(QueryHints.FETCH_SIZE, ITERATE_FETCH_SIZE)
+                                                    .from(member)
+                                                    .leftJoin(member.team, team)
+                                                    .where(
+                                                            ID_RANGE,
+                                                            predicate(condition)
+                                                    )
+                                                    .orderBy(member.id.asc());
+        return bind(bindIdRange(search, memberIdRange), condition).iterate();
+    }
+
+    @Override
+    public IdRange findMemberIdRange() {
+        final QMember member = QMember.member;
+        final NumberExpression<Long> minId = member.id.min();
+        final NumberExpression<Long> maxId = member.id.max();
+        final Tuple minMax = query.select(minId, maxId)
+                                  .from(member)
+                                  .fetchOne();
+        if (minMax == null || minMax.get(minId) == null) {
+            return null;
+        }
+        return new IdRange(minMax.get(minId), minMax.get(maxId) + 1);
+    }
+
+    private Page<MemberTeamDto> fetchSimpleSearch(MemberSearchCondition condition, Pageable pageable) {
+        final QTeam team = QTeam.team;
+        final QMember member = QMember.member;
+        QueryResults<MemberTeamDto> results = timeouts.apply(SIMPLE_SEARCH, bind(query.select(MEMBER_TEAM_DTO), condition))
                                                    .from(member)
                                                    .leftJoin(member.team, team)
-                                                   .where(
-                                                            goeAge(member, condition.getAgeGoe()),
-                                                            leoAge(member, condition.getAgeLoe())
-                                                    )
+                                                   .where(agePredicate(condition))
                                                    .offset(pageable.getOffset()) // 몇 번째 페이지인지
                                                    .limit(pageable.getPageSize()) // 하나의 페이지에 조회하는 데이터 갯수
                                                    .fetchResults();
@@ -75,25 +358,15 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
         return new PageImpl<>(memberTeamDtos, pageable, total);
     }
 
-    @Override
-    public Page<MemberTeamDto> complexSearch(MemberSearchCondition condition, Pageable pageable) {
+    private Page<MemberTeamDto> fetchComplexSearch(MemberSearchCondition condition, Pageable pageable) {
         /* 데이터의 내용과 전체 카운트를 별도로 하는 방법 */
         final QTeam team = QTeam.team;
         final QMember member = QMember.member;
-        final QMemberTeamDto memberTeamDto = new QMemberTeamDto(
-                member.id.as("memberId"),
-                member.username.as("userName"),
-                member.age,
-                team.id.as("teamId"),
-                team.name.as("teamName")
-        );
-        final List<MemberTeamDto> results = query.select(memberTeamDto)
+        final List<MemberTeamDto> results = timeouts.apply(COMPLEX_SEARCH, bind(query.select(MEMBER_TEAM_DTO), condition))
                                                  .from(member)
                                                  .leftJoin(member.team, team)
-                                                 .where(
-                                                        goeAge(member, condition.getAgeGoe()),
-                                                        leoAge(member, condition.getAgeLoe())
-                                                )
+                                                 .where(agePredicate(condition))
+                                                 .orderBy(member.id.asc()) // 페이지 경계가 실행할 때마다 달라지지 않도록 정렬 (shard 결과 merge 기준)
                                                  .offset(pageable.getOffset()) // 몇 번째 페이지인지
                                                  .limit(pageable.getPageSize()) // 하나의 페이지에 조회하는 데이터 갯수
                                                  .fetch();
@@ -105,32 +378,112 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
             그럴때는 별도로 조회하는 방식으로 최적화 가능
         */
-        final JPAQuery countQuery = query.select(member)
+        final JPAQuery countQuery = timeouts.apply(COMPLEX_SEARCH, bind(query.select(member), condition))
                                          .setHint("count query", "count query")
                                          .from(member)
                                          .leftJoin(member.team, team)
-                                         .where(
-                                                goeAge(member, condition.getAgeGoe()),
-                                                leoAge(member, condition.getAgeLoe())
-                                         );
+                                         .where(agePredicate(condition));
 
+        /*
+            결과가 아주 많을 것으로 추정되면 count 쿼리 대신 통계의 추정값 사용 (페이지 번호 표시용이라 근사치로 충분)
+                - 쿼리는 나이 조건만 사용하므로 추정도 나이 조건만으로 (이름 조건이 다른 single-flight follower 도 같은 전체 개수)
+                - 통계는 기본 shard 에서만 수집하기 때문에 shard 를 지정해서 조회할 때는 count 쿼리 사용
+        */
+        final OptionalLong estimatedCount = ShardContext.current() == null ? planner.estimatedCount(ageCondition(condition)) : OptionalLong.empty();
+        if (estimatedCount.isPresent()) {
+            return PageableExecutionUtils.getPage(results, pageable,
+                                                  () -> Math.max(estimatedCount.getAsLong(), pageable.getOffset() + results.size()));
+        }
         return PageableExecutionUtils.getPage(results, pageable, () -> countQuery.fetchCount());
     }
 
+    private MemberSearchCondition ageCondition(MemberSearchCondition condition) {
+        return MemberSearchCondition.builder()
+                                    .ageGoe(condition.getAgeGoe())
+                                    .ageLoe(condition.getAgeLoe())
+                                    .build();
+    }
+
+    @Override
+    @Transactional
+    public long increaseAge(Long memberId, int delta) {
+        final QMember member = QMember.member;
+        /* 호출한 쪽에서 수정 중인 엔티티가 있으면 먼저 반영 (아래 refresh 로 사라지지 않도록) */
+        em.flush();
+        /* DB 에서 원자적으로 증가, version 도 함께 올려서 엔티티로 수정 중인 트랜잭션이 덮어쓰지 못하도록 함 */
+        final long count = query.update(member)
+                                .set(member.age, member.age.add(delta))
+                                .set(member.version, member.version.add(1L))
+                                .where(member.id.eq(memberId))
+                                .execute();
+        /* Bulk 연산은 영속성 컨텍스트를 거치지 않기 때문에 이미 읽어둔 회원만 DB 값으로 다시 읽음 (clear 는 호출한 쪽의 다른 엔티티까지 detach) */
+        refreshIfManaged(Member.class, memberId);
+        if (count > 0) {
+            /* Bulk 연산은 엔티티 리스너를 거치지 않기 때문에 직접 발행 */
+            changeFeed.publish(MEMBER, ChangeType.UPDATE, memberId, AGE_CHANGED);
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public long moveMembers(Long fromTeamId, Long toTeamId) {
+        final QMember member = QMember.member;
+        em.flush();
+        /*
+            대상 회원을 잠그고 id 를 먼저 조회한 뒤 그 id 만 update --> 그 사이에 팀에 들어온 회원은 옮기지도, 발행하지도 않음
+            (팀 조건으로 update 하면 조회 이후에 추가된 회원이 이벤트 없이 함께 이동)
+        */
+        final List<Long> memberIds = query.select(member.id)
+                                          .from(member)
+                                          .where(member.team.id.eq(fromTeamId))
+                                          .orderBy(member.id.asc())
+                                          .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                                          .fetch();
+        /* 팀원을 한건씩 changeTeam 하지 않고 chunk 마다 update 한번으로 이동 (Team.members 로딩 X), 이벤트도 chunk 마다 하나 */
+        final Team toTeam = em.getReference(Team.class, toTeamId);
+        long count = 0L;
+        for (int from = 0; from < memberIds.size(); from += MOVE_CHUNK_SIZE) {
+            final List<Long> chunk = memberIds.subList(from, Math.min(memberIds.size(), from + MOVE_CHUNK_SIZE));
+            count += query.update(member)
+                          .set(member.team, toTeam)
+                          .set(member.version, member.version.add(1L))
+                          .where(member.id.in(chunk))
+                          .execute();
+            changeFeed.publish(MEMBER, ChangeType.UPDATE, chunk, TEAM_CHANGED);
+        }
+        /* 이미 읽어둔 이동 대상 회원, 두 팀만 다시 읽음 (팀은 refresh 하면 로딩된 members 컬렉션도 다시 지연 로딩) */
+        for (Long memberId : memberIds) {
+            refreshIfManaged(Member.class, memberId);
+        }
+        refreshIfManaged(Team.class, fromTeamId);
+        refreshIfManaged(Team.class, toTeamId);
+        return count;
+    }
+
+    private void refreshIfManaged(Class<?> entityClass, Object id) {
+        final SessionImplementor session = em.unwrap(SessionImplementor.class);
+        final EntityPersister persister = session.getFactory().getMetamodel().entityPersister(entityClass);
+        final Object managed = session.getPersistenceContext().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            em.refresh(managed);
+        }
+    }
+
     private BooleanExpression eqTeamName(QTeam team, String teamName) {
         return isEmpty(teamName) ? null : team.name.eq(teamName);
     }
 
-    private BooleanExpression leoAge(QMember member, Integer age) {
-        return isNotNull(age) ? member.age.loe(age) : null;
+    private BooleanExpression leoAge(QMemberArchive memberArchive, Integer age) {
+        return isNotNull(age) ? memberArchive.age.loe(age) : null;
     }
 
-    private BooleanExpression goeAge(QMember member, Integer age) {
-        return isNotNull(age) ? member.age.goe(age) : null;
+    private BooleanExpression goeAge(QMemberArchive memberArchive, Integer age) {
+        return isNotNull(age) ? memberArchive.age.goe(age) : null;
     }
 
-    private BooleanExpression eqUserName(QMember member, String userName) {
-        return isEmpty(userName) ? null : member.username.eq(userName);
+    private BooleanExpression eqUserName(QMemberArchive memberArchive, String userName) {
+        return isEmpty(userName) ? null : memberArchive.username.eq(userName);
     }
 
     private boolean isNotNull(Integer num) {
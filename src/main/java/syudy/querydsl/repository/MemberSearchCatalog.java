@@ -0,0 +1,55 @@
+package syudy.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.impl.JPAQuery;
+import syudy.querydsl.dto.IdRange;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.QMemberTeamDto;
+import syudy.querydsl.entity.QMember;
+import syudy.querydsl.entity.QTeam;
+
+/*
+    MemberSearchCondition 검색에 쓰는 projection, predicate 를 미리 만들어두고 재사용 (member + team join 대상)
+
+        - 조건 규칙과 shape 별 predicate 는 MemberSearchPredicates (member_team_view 검색과 공유)
+        - iterateSearch 의 id 구간 조건도 Param 으로 한번만 생성
+*/
+final class MemberSearchCatalog {
+
+    static final QMemberTeamDto MEMBER_TEAM_DTO = new QMemberTeamDto(
+            QMember.member.id.as("memberId"),
+            QMember.member.username.as("userName"),
+            QMember.member.age,
+            QTeam.team.id.as("teamId"),
+            QTeam.team.name.as("teamName")
+    );
+
+    /* iterateSearch 의 member_id 구간 [from, to) */
+    private static final Param<Long> ID_FROM = new Param<>(Long.class, "idFrom");
+    private static final Param<Long> ID_TO = new Param<>(Long.class, "idTo");
+    static final Predicate ID_RANGE = QMember.member.id.goe(ID_FROM).and(QMember.member.id.lt(ID_TO));
+
+    private static final MemberSearchPredicates PREDICATES = new MemberSearchPredicates(QMember.member.username, QTeam.team.name, QMember.member.age);
+
+    private MemberSearchCatalog() {
+    }
+
+    static Predicate predicate(MemberSearchCondition condition) {
+        return PREDICATES.predicate(condition);
+    }
+
+    static Predicate agePredicate(MemberSearchCondition condition) {
+        return PREDICATES.agePredicate(condition);
+    }
+
+    static <T> JPAQuery<T> bind(JPAQuery<T> query, MemberSearchCondition condition) {
+        return MemberSearchPredicates.bind(query, condition);
+    }
+
+    static <T> JPAQuery<T> bindIdRange(JPAQuery<T> query, IdRange range) {
+        return query.set(ID_FROM, range.getFrom())
+                    .set(ID_TO, range.getTo());
+    }
+
+}
@@ -0,0 +1,104 @@
+package syudy.querydsl.repository;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import syudy.querydsl.dto.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
+
+/*
+    MemberSearchCondition 의 조건 규칙 (teamName, userName 은 eq, ageGoe/ageLoe 는 범위) 을 대상 경로만 바꿔서 재사용
+
+        - 조건 4개의 유무 조합(16가지 shape)마다 predicate 를 한번만 생성, 값은 Param 으로 비워둠
+        - 검색할 때는 shape 에 맞는 predicate 를 고르고 Param 에 값만 바인딩 (BooleanExpression/Operation 트리 생성 X)
+        - Querydsl 표현식은 불변이라 여러 스레드가 같은 인스턴스를 공유해도 안전
+        - 값이 아니라 Param 이 들어간 predicate 라 생성되는 JPQL 도 shape 마다 하나 --> Hibernate query plan 캐시 재사용
+        - member + team join (MemberSearchCatalog), member_team_view (MemberTeamViewCatalog) 가 같은 규칙을 사용
+*/
+public final class MemberSearchPredicates {
+
+    private static final Param<String> USER_NAME = new Param<>(String.class, "userName");
+    private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+    private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+
+    private static final int HAS_USER_NAME = 1;
+    private static final int HAS_TEAM_NAME = 1 << 1;
+    private static final int HAS_AGE_GOE = 1 << 2;
+    private static final int HAS_AGE_LOE = 1 << 3;
+    private static final int AGE_ONLY = HAS_AGE_GOE | HAS_AGE_LOE;
+
+    /* shape 별 predicate, 조건이 하나도 없으면 null (where 에서 무시) */
+    private final Predicate[] predicates = new Predicate[1 << 4];
+
+    public MemberSearchPredicates(StringExpression userName, StringExpression teamName, NumberExpression<Integer> age) {
+        for (int shape = 0; shape < predicates.length; shape++) {
+            final List<Predicate> conditions = new ArrayList<>();
+            if ((shape & HAS_TEAM_NAME) != 0) {
+                conditions.add(teamName.eq(TEAM_NAME));
+            }
+            if ((shape & HAS_USER_NAME) != 0) {
+                conditions.add(userName.eq(USER_NAME));
+            }
+            if ((shape & HAS_AGE_GOE) != 0) {
+                conditions.add(age.goe(AGE_GOE));
+            }
+            if ((shape & HAS_AGE_LOE) != 0) {
+                conditions.add(age.loe(AGE_LOE));
+            }
+            predicates[shape] = ExpressionUtils.allOf(conditions);
+        }
+    }
+
+    /* eqTeamName, eqUserName, goeAge, leoAge 를 모두 적용한 것과 같은 조건 */
+    public Predicate predicate(MemberSearchCondition condition) {
+        return predicates[shape(condition)];
+    }
+
+    /* 나이 조건만 사용하는 검색 (simpleSearch, complexSearch) */
+    public Predicate agePredicate(MemberSearchCondition condition) {
+        return predicates[shape(condition) & AGE_ONLY];
+    }
+
+    /* predicate / agePredicate 로 만든 쿼리에 조건 값 바인딩 (사용하지 않는 Param 은 무시됨) */
+    public static <T> JPAQuery<T> bind(JPAQuery<T> query, MemberSearchCondition condition) {
+        if (!isEmpty(condition.getUserName())) {
+            query.set(USER_NAME, condition.getUserName());
+        }
+        if (!isEmpty(condition.getTeamName())) {
+            query.set(TEAM_NAME, condition.getTeamName());
+        }
+        if (condition.getAgeGoe() != null) {
+            query.set(AGE_GOE, condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            query.set(AGE_LOE, condition.getAgeLoe());
+        }
+        return query;
+    }
+
+    private static int shape(MemberSearchCondition condition) {
+        int shape = 0;
+        if (!isEmpty(condition.getUserName())) {
+            shape |= HAS_USER_NAME;
+        }
+        if (!isEmpty(condition.getTeamName())) {
+            shape |= HAS_TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= HAS_AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= HAS_AGE_LOE;
+        }
+        return shape;
+    }
+
+}
@@ -0,0 +1,66 @@
+package syudy.querydsl.seed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.importer.ImportResult;
+import syudy.querydsl.importer.MemberImporter;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+    벤치마크용 데이터 생성 (querydsl.seed.enabled=true, h2file 프로파일)
+
+        - 파일 기반 DB 에 이미 목표 건수가 있으면 아무것도 하지 않음 --> 재기동할 때마다 다시 넣지 않음
+        - 데이터는 MemberImporter 파이프라인(JDBC batch)으로 등록
+        - userName : member-{n}, age : 10 ~ 69, teamName : team-{n % teams}
+*/
+@Slf4j
+@RequiredArgsConstructor
+public class MemberSeeder implements ApplicationRunner {
+
+    private static final int AGE_MIN = 10;
+    private static final int AGE_RANGE = 60;
+
+    private final SeedProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final MemberImporter memberImporter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        final long existing = jdbcTemplate.queryForObject("select count(*) from member", Long.class);
+        if (existing >= properties.getMembers()) {
+            log.info(" --> Seed : {} members already exist, skip", existing);
+            return;
+        }
+
+        log.info(" --> Seed : {} members exist, generating {} more", existing, properties.getMembers() - existing);
+        final ImportResult result = memberImporter.importLines(lines(existing, properties.getMembers()), properties.getWriters());
+        log.info(" --> Seed : {} ({} rows/s)", result, result.getRowsPerSecond());
+    }
+
+    private Iterator<String> lines(long from, long to) {
+        return new Iterator<String>() {
+
+            private long next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final long n = next++;
+                return "member-" + n + "," + (AGE_MIN + n % AGE_RANGE) + ",team-" + n % properties.getTeams();
+            }
+        };
+    }
+
+}
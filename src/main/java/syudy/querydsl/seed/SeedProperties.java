@@ -0,0 +1,19 @@
+package syudy.querydsl.seed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.seed")
+public class SeedProperties {
+
+    private boolean enabled;
+
+    /* 목표 회원 수, 이미 있는 만큼은 건너뛰고 부족한 만큼만 생성 */
+    private long members = 1_000_000L;
+    private int teams = 1_000;
+    private int writers = 4;
+
+}
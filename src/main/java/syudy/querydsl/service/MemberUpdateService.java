@@ -0,0 +1,61 @@
+package syudy.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.retry.OptimisticLockRetryExecutor;
+
+import javax.persistence.EntityManager;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class MemberUpdateService {
+
+    private final EntityManager em;
+    private final MemberRepository memberRepository;
+    private final OptimisticLockRetryExecutor retryExecutor;
+
+    public Member changeAge(Long memberId, int age) {
+        return update(memberId, member -> member.setAge(age));
+    }
+
+    public Member changeTeam(Long memberId, Long teamId) {
+        return update(memberId, member -> member.changeTeam(findTeam(teamId)));
+    }
+
+    /* 조회 -> 변경 -> 커밋(version 검사) 을 하나의 단위로 재시도 */
+    public Member update(Long memberId, Consumer<Member> change) {
+        return retryExecutor.execute(() -> {
+            final Member member = findMember(memberId);
+            change.accept(member);
+            return member;
+        });
+    }
+
+    /*
+        나이처럼 자주 변경되는 값은 엔티티를 읽지 않고 DB 에서 바로 증가 (update member set age = age + ?)
+            --> 락 대기, 재시도, lost update 없음
+    */
+    @Transactional
+    public long increaseAge(Long memberId, int delta) {
+        return memberRepository.increaseAge(memberId, delta);
+    }
+
+    private Member findMember(Long memberId) {
+        return memberRepository.findById(memberId)
+                               .orElseThrow(() -> new IllegalArgumentException("member not found : " + memberId));
+    }
+
+    private Team findTeam(Long teamId) {
+        final Team team = em.find(Team.class, teamId);
+        if (team == null) {
+            throw new IllegalArgumentException("team not found : " + teamId);
+        }
+        return team;
+    }
+
+}
@@ -0,0 +1,36 @@
+package syudy.querydsl.shard;
+
+import java.util.function.Supplier;
+
+/*
+    현재 스레드가 사용할 shard 번호
+
+        - 트랜잭션이 시작될 때(커넥션을 얻을 때) 값을 읽기 때문에 반드시 트랜잭션 바깥에서 지정
+        - 지정하지 않으면 ShardRoutingDataSource 의 기본 shard(0) 사용
+*/
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        final Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+}
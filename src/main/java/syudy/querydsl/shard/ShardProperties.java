@@ -0,0 +1,26 @@
+package syudy.querydsl.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.shard")
+public class ShardProperties {
+
+    private boolean enabled;
+
+    /* shard 번호 순서대로 JDBC url */
+    private List<String> urls = new ArrayList<>();
+    private String username = "sa";
+    private String password = "";
+    private int maximumPoolSize = 10;
+
+    /* 각 shard 에 실행할 스키마 (hibernate_sequence 는 shard 마다 겹치지 않도록 다시 설정) */
+    private String schema = "classpath:schema-faststart.sql";
+
+}
@@ -0,0 +1,52 @@
+package syudy.querydsl.shard;
+
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+
+/*
+    shard 결정 규칙
+
+        - Team : 팀 이름의 hash 로 shard 결정, 해당 shard 의 시퀀스에서 id 를 받기 때문에 team_id % shardCount == shard
+        - Member : 소속 팀의 team_id 로 결정 (team_id % shardCount), 팀이 없으면 0번 shard
+        - 각 shard 의 시퀀스는 (shardCount + shard) 부터 shardCount 씩 증가 --> 모든 shard 에서 id 가 겹치지 않음
+        - 이미 데이터가 있는 shard 는 사용한 가장 큰 id 다음의 같은 나머지 값부터 다시 시작 (재시작해도 PK 충돌 X)
+*/
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardOfTeamName(String teamName) {
+        return Math.floorMod(teamName.hashCode(), shardCount);
+    }
+
+    public int shardOfTeamId(Long teamId) {
+        return teamId == null ? 0 : (int) Math.floorMod(teamId, (long) shardCount);
+    }
+
+    public int shardOf(Team team) {
+        return team.getId() == null ? shardOfTeamName(team.getName()) : shardOfTeamId(team.getId());
+    }
+
+    public int shardOf(Member member) {
+        return member.getTeam() == null ? 0 : shardOf(member.getTeam());
+    }
+
+    public long sequenceStart(int shard) {
+        return shardCount + shard;
+    }
+
+    /* maxUsedId 보다 크고 shard 의 나머지와 같은 가장 작은 id (시퀀스, 테이블에서 사용한 최대값 기준) */
+    public long sequenceRestart(int shard, long maxUsedId) {
+        final long base = Math.max(maxUsedId + 1, sequenceStart(shard));
+        return base + Math.floorMod(shard - base, (long) shardCount);
+    }
+
+}
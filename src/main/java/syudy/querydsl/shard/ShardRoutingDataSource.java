@@ -0,0 +1,36 @@
+package syudy.querydsl.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* shard 번호 순서대로 받은 커넥션 풀로 라우팅, 종료할 때 모든 shard 의 풀을 닫음 (기본 shard 는 0번) */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = shards;
+        final Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void destroy() {
+        shards.forEach(HikariDataSource::close);
+    }
+
+}
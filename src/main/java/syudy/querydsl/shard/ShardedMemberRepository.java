@@ -0,0 +1,217 @@
+package syudy.querydsl.shard;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.fair.TenantContext;
+import syudy.querydsl.support.timeout.QueryDeadline;
+import syudy.querydsl.support.timeout.QueryDeadlineExceededException;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
+
+/*
+    MemberRepositoryCustom 검색을 여러 shard 에 나눠서 실행
+
+        - save : ShardRouter 규칙으로 shard 하나를 골라서 저장
+        - search : teamName 조건이 있으면 해당 팀의 shard 한곳만, 없으면 모든 shard 에 병렬로 실행 후 합침
+        - complexSearch : 모든 shard 에서 (offset + size) 건씩 memberId 순으로 가져와서 k-way merge, 전체 카운트는 합산
+          (complexSearch 는 teamName 조건을 사용하지 않기 때문에 항상 전체 shard 대상)
+        - 병렬 실행하는 shard 스레드에도 호출한 스레드의 TenantContext, QueryDeadline 을 그대로 지정, 결과는 마감 시간까지만 기다림
+        - MemberRepositoryCustom 을 대신하지 않는 별도 bean : 여기를 거치는 호출만 shard 를 나눠서 처리
+          (MemberRepository 를 직접 호출하면 기본 shard(0) 만 조회/저장)
+*/
+public class ShardedMemberRepository {
+
+    private static final Comparator<MemberTeamDto> BY_MEMBER_ID = Comparator.comparing(MemberTeamDto::getMemberId);
+
+    private final MemberRepository memberRepository;
+    private final EntityManager em;
+    private final ShardRouter router;
+    private final ExecutorService executor;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+
+    public ShardedMemberRepository(MemberRepository memberRepository, EntityManager em, ShardRouter router,
+                                   PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.em = em;
+        this.router = router;
+        this.executor = Executors.newFixedThreadPool(router.getShardCount());
+        /* 바깥 트랜잭션에 참여하면 이미 다른 shard 의 커넥션을 사용하게 되므로 항상 새 트랜잭션 */
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    public Team saveTeam(Team team) {
+        return onShard(router.shardOf(team), writeTransaction, () -> {
+            em.persist(team);
+            return team;
+        });
+    }
+
+    public Member save(Member member) {
+        return onShard(router.shardOf(member), writeTransaction, () -> memberRepository.save(member));
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        if (!isEmpty(condition.getTeamName())) {
+            return onShard(router.shardOfTeamName(condition.getTeamName()), readTransaction, () -> memberRepository.search(condition));
+        }
+        return scatter(shard -> memberRepository.search(condition)).stream()
+                                                                     .flatMap(List::stream)
+                                                                     .collect(Collectors.toList());
+    }
+
+    public Page<MemberTeamDto> complexSearch(MemberSearchCondition condition, Pageable pageable) {
+        final Pageable shardPageable = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize());
+        final List<Page<MemberTeamDto>> pages = scatter(shard -> memberRepository.complexSearch(condition, shardPageable));
+
+        final long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        final List<MemberTeamDto> contents = merge(pages, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(contents, pageable, total);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /* shard 별로 memberId 순 정렬된 결과를 PriorityQueue 로 합치면서 offset 만큼 건너뛰고 size 만큼만 꺼냄 */
+    private List<MemberTeamDto> merge(List<Page<MemberTeamDto>> pages, long offset, int size) {
+        final PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(Comparator.comparing(PeekingIterator::peek, BY_MEMBER_ID));
+        for (Page<MemberTeamDto> page : pages) {
+            final PeekingIterator iterator = new PeekingIterator(page.getContent().iterator());
+            if (iterator.peek() != null) {
+                heads.add(iterator);
+            }
+        }
+
+        final List<MemberTeamDto> contents = new ArrayList<>(size);
+        long skipped = 0L;
+        while (!heads.isEmpty() && contents.size() < size) {
+            final PeekingIterator head = heads.poll();
+            final MemberTeamDto next = head.next();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                contents.add(next);
+            }
+            if (head.peek() != null) {
+                heads.add(head);
+            }
+        }
+        return contents;
+    }
+
+    private <T> List<T> scatter(Function<Integer, T> action) {
+        /* ThreadLocal 이라 shard 스레드로 넘어가지 않음 --> 호출한 스레드에서 읽어서 shard 스레드에 다시 지정 */
+        final String tenant = TenantContext.current();
+        final QueryDeadline deadline = QueryDeadline.current();
+        final List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            final int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> callAs(tenant, deadline, () -> onShard(target, readTransaction, () -> action.apply(target))),
+                                                      executor));
+        }
+        try {
+            final List<T> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                results.add(await(future, deadline));
+            }
+            return results;
+        } finally {
+            /* 실패하거나 마감 시간이 지나면 아직 시작하지 않은 shard 는 실행하지 않음 */
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private static <T> T callAs(String tenant, QueryDeadline deadline, Supplier<T> action) {
+        final Supplier<T> withDeadline = deadline == null ? action : () -> QueryDeadline.callWithin(deadline, action);
+        return tenant == null ? withDeadline.get() : TenantContext.callAs(tenant, withDeadline);
+    }
+
+    /* 마감 시간이 없으면 shard 쿼리의 query timeout 까지, 있으면 남은 시간까지만 대기 */
+    private static <T> T await(CompletableFuture<T> future, QueryDeadline deadline) {
+        if (deadline == null) {
+            return join(future);
+        }
+        try {
+            future.get(Math.max(0L, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            deadline.check();
+            throw new QueryDeadlineExceededException("query deadline exceeded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryDeadlineExceededException("query interrupted");
+        } catch (ExecutionException e) {
+            /* 아래 join 에서 shard 의 예외 그대로 */
+        }
+        return join(future);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> T onShard(int shard, TransactionTemplate transactionTemplate, Supplier<T> action) {
+        return ShardContext.callOn(shard, () -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    private static class PeekingIterator {
+
+        private final Iterator<MemberTeamDto> iterator;
+        private MemberTeamDto head;
+
+        PeekingIterator(Iterator<MemberTeamDto> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        MemberTeamDto peek() {
+            return head;
+        }
+
+        MemberTeamDto next() {
+            final MemberTeamDto current = head;
+            head = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package syudy.querydsl.snapshot;
+
+import java.util.Arrays;
+
+/* 스냅샷을 만들기 위해 member row 를 컬럼별 배열로 모으는 버퍼 (member_id 오름차순으로 추가) */
+class MemberColumns {
+
+    static final long NO_TEAM = -1L;
+
+    private long[] memberIds;
+    private String[] usernames;
+    private int[] ages;
+    private long[] teamIds;
+    private int size;
+
+    MemberColumns(int capacity) {
+        final int initial = Math.max(16, capacity);
+        this.memberIds = new long[initial];
+        this.usernames = new String[initial];
+        this.ages = new int[initial];
+        this.teamIds = new long[initial];
+    }
+
+    void add(long memberId, String username, int age, long teamId) {
+        if (size == memberIds.length) {
+            final int capacity = size + (size >> 1);
+            memberIds = Arrays.copyOf(memberIds, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamIds = Arrays.copyOf(teamIds, capacity);
+        }
+        memberIds[size] = memberId;
+        usernames[size] = username;
+        ages[size] = age;
+        teamIds[size] = teamId;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memberId(int row) {
+        return memberIds[row];
+    }
+
+    String username(int row) {
+        return usernames[row];
+    }
+
+    int age(int row) {
+        return ages[row];
+    }
+
+    long teamId(int row) {
+        return teamIds[row];
+    }
+
+}
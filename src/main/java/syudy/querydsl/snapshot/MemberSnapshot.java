@@ -0,0 +1,293 @@
+package syudy.querydsl.snapshot;
+
+import lombok.Getter;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
+
+/*
+    member, team 을 컬럼별 배열로 들고 있는 읽기 전용 스냅샷 (변경은 새 스냅샷을 만들어서 교체)
+
+        - row 는 member_id 오름차순, 나이는 int[] 로 박싱 없이 비교
+        - 팀은 사전 인코딩 (row 에는 int 코드만, 코드 -> team id / name 은 사전에서), 팀 이름 조건은 코드 비교로 바뀜
+        - 나이 정렬 인덱스 (ageOrder) : 나이 조건이 좁으면 이진 탐색으로 후보 row 만 확인
+        - 그 외에는 전체 스캔, row 수가 parallelThreshold 이상이면 fork-join 으로 구간을 나눠 병렬 스캔
+*/
+public class MemberSnapshot {
+
+    private static final int NO_TEAM_CODE = -1;
+    private static final int SCAN_CHUNK_SIZE = 16_384;
+    /* 나이 인덱스 후보가 전체의 1/4 이하일 때만 인덱스 사용 (그 이상이면 순차 스캔 + 정렬 생략이 빠름) */
+    private static final int INDEX_SELECTIVITY = 4;
+
+    private final long[] memberIds;
+    private final String[] usernames;
+    private final int[] ages;
+    private final int[] teamCodes;
+
+    private final long[] teamIds;
+    private final String[] teamNames;
+
+    private final int[] ageOrder;
+    private final int[] sortedAges;
+
+    /* 이 스냅샷에 반영된 마지막 ChangeFeed sequence */
+    @Getter
+    private final long lastSequence;
+
+    private MemberSnapshot(MemberColumns columns, Map<Long, String> teams, long lastSequence) {
+        final int size = columns.size();
+        this.lastSequence = lastSequence;
+
+        this.teamIds = teams.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        this.teamNames = new String[teamIds.length];
+        for (int code = 0; code < teamIds.length; code++) {
+            teamNames[code] = teams.get(teamIds[code]);
+        }
+
+        this.memberIds = new long[size];
+        this.usernames = new String[size];
+        this.ages = new int[size];
+        this.teamCodes = new int[size];
+        /* (age << 32 | row) 를 정렬해서 나이 순서의 row 번호를 얻음 (Integer[] + Comparator 없이) */
+        final long[] ageKeys = new long[size];
+        for (int row = 0; row < size; row++) {
+            memberIds[row] = columns.memberId(row);
+            usernames[row] = columns.username(row);
+            ages[row] = columns.age(row);
+            teamCodes[row] = teamCode(columns.teamId(row));
+            ageKeys[row] = ((long) ages[row] << 32) | row;
+        }
+        Arrays.parallelSort(ageKeys);
+
+        this.ageOrder = new int[size];
+        this.sortedAges = new int[size];
+        for (int i = 0; i < size; i++) {
+            ageOrder[i] = (int) ageKeys[i];
+            sortedAges[i] = (int) (ageKeys[i] >> 32);
+        }
+    }
+
+    static MemberSnapshot of(MemberColumns columns, Map<Long, String> teams, long lastSequence) {
+        return new MemberSnapshot(columns, teams, lastSequence);
+    }
+
+    /* changedIds 의 row 를 reloaded (DB 에서 다시 읽은 row, 삭제된 회원은 없음) 로 바꾼 새 스냅샷 */
+    MemberSnapshot apply(Set<Long> changedIds, MemberColumns reloaded, Map<Long, String> teams, long lastSequence) {
+        final MemberColumns merged = new MemberColumns(memberIds.length + reloaded.size());
+        int j = 0;
+        for (int row = 0; row < memberIds.length; row++) {
+            while (j < reloaded.size() && reloaded.memberId(j) < memberIds[row]) {
+                merged.add(reloaded.memberId(j), reloaded.username(j), reloaded.age(j), reloaded.teamId(j));
+                j++;
+            }
+            if (!changedIds.contains(memberIds[row])) {
+                merged.add(memberIds[row], usernames[row], ages[row], teamId(row));
+            }
+        }
+        for (; j < reloaded.size(); j++) {
+            merged.add(reloaded.memberId(j), reloaded.username(j), reloaded.age(j), reloaded.teamId(j));
+        }
+        return new MemberSnapshot(merged, teams, lastSequence);
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition, ForkJoinPool pool, int parallelThreshold) {
+        return search(condition, pool, parallelThreshold, Long.MAX_VALUE);
+    }
+
+    /* 결과 DTO 는 rowLimit 건까지만 생성 (QueryTimeoutPolicy.rowLimit 를 넘겨서 DB 검색과 같은 maxRows 확인) */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, ForkJoinPool pool, int parallelThreshold, long rowLimit) {
+        final Filter filter = new Filter(condition);
+        if (filter.empty) {
+            return new ArrayList<>();
+        }
+
+        final int[] rows;
+        if (condition.getAgeGoe() != null || condition.getAgeLoe() != null) {
+            final int from = lowerBound(filter.minAge);
+            final int to = filter.maxAge == Integer.MAX_VALUE ? sortedAges.length : lowerBound(filter.maxAge + 1);
+            rows = (long) (to - from) * INDEX_SELECTIVITY <= memberIds.length
+                    ? indexScan(filter, from, to)
+                    : scan(filter, pool, parallelThreshold);
+        } else {
+            rows = scan(filter, pool, parallelThreshold);
+        }
+
+        final int count = (int) Math.min(rows.length, rowLimit);
+        final List<MemberTeamDto> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int row = rows[i];
+            final int code = teamCodes[row];
+            results.add(new MemberTeamDto(memberIds[row], usernames[row], ages[row],
+                                          code == NO_TEAM_CODE ? null : teamIds[code],
+                                          code == NO_TEAM_CODE ? null : teamNames[code]));
+        }
+        return results;
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    Map<Long, String> teams() {
+        final Map<Long, String> teams = new HashMap<>(teamIds.length * 2);
+        for (int code = 0; code < teamIds.length; code++) {
+            teams.put(teamIds[code], teamNames[code]);
+        }
+        return teams;
+    }
+
+    boolean containsTeam(long teamId) {
+        return teamId == MemberColumns.NO_TEAM || Arrays.binarySearch(teamIds, teamId) >= 0;
+    }
+
+    private int[] indexScan(Filter filter, int from, int to) {
+        final int[] rows = new int[to - from];
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            final int row = ageOrder[i];
+            if (filter.matches(row)) {
+                rows[count++] = row;
+            }
+        }
+        /* 나이 순서로 모은 row 를 member_id 순서로 되돌림 */
+        final int[] result = Arrays.copyOf(rows, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int[] scan(Filter filter, ForkJoinPool pool, int parallelThreshold) {
+        if (memberIds.length < parallelThreshold) {
+            return filter.scan(0, memberIds.length);
+        }
+        return pool.invoke(new ScanTask(filter, 0, memberIds.length));
+    }
+
+    /* value 이상인 첫 위치 */
+    private int lowerBound(int value) {
+        int low = 0;
+        int high = sortedAges.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sortedAges[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int teamCode(long teamId) {
+        if (teamId == MemberColumns.NO_TEAM) {
+            return NO_TEAM_CODE;
+        }
+        final int code = Arrays.binarySearch(teamIds, teamId);
+        return code < 0 ? NO_TEAM_CODE : code;
+    }
+
+    private long teamId(int row) {
+        return teamCodes[row] == NO_TEAM_CODE ? MemberColumns.NO_TEAM : teamIds[teamCodes[row]];
+    }
+
+    /* MemberRepositoryImpl 의 eqTeamName, eqUserName, goeAge, leoAge 와 같은 조건 (값이 없으면 조건 생략) */
+    private class Filter {
+
+        private final int minAge;
+        private final int maxAge;
+        private final String username;
+        /* 팀 이름 조건이 있을 때 코드별 일치 여부 (팀 이름은 유일하지 않을 수 있음) */
+        private final boolean[] teamMatches;
+        private final boolean empty;
+
+        private Filter(MemberSearchCondition condition) {
+            this.minAge = condition.getAgeGoe() == null ? Integer.MIN_VALUE : condition.getAgeGoe();
+            this.maxAge = condition.getAgeLoe() == null ? Integer.MAX_VALUE : condition.getAgeLoe();
+            this.username = isEmpty(condition.getUserName()) ? null : condition.getUserName();
+
+            boolean anyTeam = true;
+            if (isEmpty(condition.getTeamName())) {
+                this.teamMatches = null;
+            } else {
+                this.teamMatches = new boolean[teamNames.length];
+                anyTeam = false;
+                for (int code = 0; code < teamNames.length; code++) {
+                    teamMatches[code] = condition.getTeamName().equals(teamNames[code]);
+                    anyTeam |= teamMatches[code];
+                }
+            }
+            this.empty = !anyTeam || minAge > maxAge;
+        }
+
+        private boolean matches(int row) {
+            final int age = ages[row];
+            if (age < minAge || age > maxAge) {
+                return false;
+            }
+            if (teamMatches != null) {
+                final int code = teamCodes[row];
+                if (code == NO_TEAM_CODE || !teamMatches[code]) {
+                    return false;
+                }
+            }
+            return username == null || username.equals(usernames[row]);
+        }
+
+        private int[] scan(int from, int to) {
+            int[] result = new int[Math.min(to - from, SCAN_CHUNK_SIZE)];
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                if (matches(row)) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, result.length * 2);
+                    }
+                    result[count++] = row;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+    }
+
+    /* 구간을 SCAN_CHUNK_SIZE 이하가 될 때까지 반으로 나눠서 스캔, 왼쪽 결과를 앞에 붙여 member_id 순서 유지 */
+    private static class ScanTask extends RecursiveTask<int[]> {
+
+        private final Filter filter;
+        private final int from;
+        private final int to;
+
+        private ScanTask(Filter filter, int from, int to) {
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SCAN_CHUNK_SIZE) {
+                return filter.scan(from, to);
+            }
+            final int mid = (from + to) >>> 1;
+            final ScanTask left = new ScanTask(filter, from, mid);
+            left.fork();
+            final int[] right = new ScanTask(filter, mid, to).compute();
+            final int[] leftRows = left.join();
+
+            final int[] rows = Arrays.copyOf(leftRows, leftRows.length + right.length);
+            System.arraycopy(right, 0, rows, leftRows.length, right.length);
+            return rows;
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+package syudy.querydsl.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.cdc.ChangeEvent;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeSubscription;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    MemberSnapshot 으로 search 를 처리하고, 스냅샷이 없거나 오래되면 MemberRepository 로 조회 (querydsl.snapshot.enabled=true 일 때만 등록)
+
+        - 갱신은 전용 스레드 하나에서 refreshInterval 마다 실행
+        - ChangeFeed 에서 변경된 member id 만 모아서 DB 에서 다시 읽고 새 스냅샷으로 교체 (team 변경은 team 사전만 다시 읽음)
+        - overrun (구독이 너무 뒤처짐) 이거나 fullReloadInterval 이 지나면 전체 재적재
+        - 전체 재적재 전에 구독을 먼저 시작하기 때문에 적재 중에 커밋된 변경도 다음 갱신에서 반영 (같은 row 를 다시 읽어도 결과는 같음)
+        - 결과는 커밋 후 최대 refreshInterval 만큼 늦을 수 있음 --> 최신 값이 꼭 필요한 곳은 MemberRepository 사용
+        - 스냅샷 검색에도 MemberRepository.search 와 같은 maxRows 적용 (어느 쪽이 처리해도 같은 TooManyRowsException)
+*/
+@Slf4j
+public class MemberSnapshotEngine implements DisposableBean {
+
+    private static final String SELECT_MEMBERS = "select member_id, username, age, team_id from member";
+    private static final String SELECT_TEAMS = "select team_id, name from team";
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final int RELOAD_CHUNK_SIZE = 512;
+    private static final int POLL_SIZE = 10_000;
+
+    /* QueryTimeoutPolicy 의 메서드별 설정 이름, MemberRepository.search 와 같은 설정 사용 */
+    private static final String SEARCH = "search";
+
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final String TEAM = Team.class.getSimpleName();
+
+    private final SnapshotProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeed changeFeed;
+    private final MemberRepository memberRepository;
+    private final QueryTimeoutPolicy timeouts;
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile MemberSnapshot snapshot;
+    private volatile long refreshedAt;
+    private ChangeSubscription subscription;
+    private long fullReloadedAt;
+
+    private final AtomicLong snapshotSearches = new AtomicLong();
+    private final AtomicLong fallbackSearches = new AtomicLong();
+
+    public MemberSnapshotEngine(SnapshotProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed, MemberRepository memberRepository,
+                                QueryTimeoutPolicy timeouts) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeFeed = changeFeed;
+        this.memberRepository = memberRepository;
+        this.timeouts = timeouts;
+        this.pool = new ForkJoinPool(properties.getParallelism());
+    }
+
+    /* 첫 적재도 갱신 스레드에서 실행 (기동을 막지 않음, 그동안은 DB 로 조회) */
+    public void start() {
+        final long interval = properties.getRefreshInterval().toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, 0L, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        final MemberSnapshot current = snapshot;
+        /* 스냅샷에는 member 만 있으므로 archive 포함 검색은 DB 로 */
+        if (current == null || condition.isIncludeArchived()
+                || System.currentTimeMillis() - refreshedAt > properties.getMaxStaleness().toMillis()) {
+            fallbackSearches.incrementAndGet();
+            return memberRepository.search(condition);
+        }
+        snapshotSearches.incrementAndGet();
+        final List<MemberTeamDto> results = current.search(condition, pool, properties.getParallelThreshold(), timeouts.rowLimit());
+        timeouts.checkRows(SEARCH, results);
+        return results;
+    }
+
+    public synchronized void refresh() {
+        final long now = System.currentTimeMillis();
+        if (snapshot == null || now - fullReloadedAt >= properties.getFullReloadInterval().toMillis()) {
+            reload();
+            return;
+        }
+
+        final Set<Long> memberIds = new HashSet<>();
+        boolean teamChanged = false;
+        List<ChangeEvent> events;
+        while (!(events = subscription.poll(POLL_SIZE)).isEmpty()) {
+            for (ChangeEvent event : events) {
+                if (MEMBER.equals(event.getEntity())) {
+                    event.getIds().forEach(id -> memberIds.add((Long) id));
+                } else if (TEAM.equals(event.getEntity())) {
+                    teamChanged = true;
+                }
+            }
+        }
+        if (subscription.checkAndClearOverrun()) {
+            reload();
+            return;
+        }
+        if (!memberIds.isEmpty() || teamChanged) {
+            final MemberSnapshot current = snapshot;
+            final MemberColumns reloaded = loadMembers(memberIds);
+            Map<Long, String> teams = teamChanged ? loadTeams() : current.teams();
+            if (!teamChanged && !containsTeams(current, reloaded)) {
+                /* 팀 insert 이벤트보다 회원 이벤트를 먼저 읽은 경우 */
+                teams = loadTeams();
+            }
+            snapshot = current.apply(memberIds, reloaded, teams, subscription.getPosition());
+        }
+        refreshedAt = now;
+    }
+
+    /* 전체 재적재 */
+    public synchronized void reload() {
+        final long now = System.currentTimeMillis();
+        final ChangeSubscription reloadSubscription = changeFeed.subscribe();
+        final Map<Long, String> teams = loadTeams();
+        final MemberColumns columns = new MemberColumns(snapshot == null ? 0 : snapshot.size());
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(SELECT_MEMBERS + " order by member_id");
+            statement.setFetchSize(LOAD_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> addRow(columns, rs));
+
+        snapshot = MemberSnapshot.of(columns, teams, reloadSubscription.getPosition());
+        subscription = reloadSubscription;
+        fullReloadedAt = now;
+        refreshedAt = now;
+        log.info("member snapshot loaded: {} members, {} teams, {}ms", columns.size(), teams.size(), System.currentTimeMillis() - now);
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public long getSnapshotSearches() {
+        return snapshotSearches.get();
+    }
+
+    public long getFallbackSearches() {
+        return fallbackSearches.get();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            /* 다음 주기에 다시 시도, 그동안 maxStaleness 가 지나면 DB 로 조회 */
+            log.warn("member snapshot refresh failed", e);
+        }
+    }
+
+    private MemberColumns loadMembers(Set<Long> memberIds) {
+        final List<Long> ids = new ArrayList<>(memberIds);
+        Collections.sort(ids);
+        final MemberColumns columns = new MemberColumns(ids.size());
+        for (int from = 0; from < ids.size(); from += RELOAD_CHUNK_SIZE) {
+            final List<Long> chunk = ids.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, ids.size()));
+            final String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(SELECT_MEMBERS + " where member_id in (" + placeholders + ") order by member_id",
+                               (ResultSet rs) -> addRow(columns, rs), chunk.toArray());
+        }
+        return columns;
+    }
+
+    private Map<Long, String> loadTeams() {
+        final Map<Long, String> teams = new HashMap<>();
+        jdbcTemplate.query(SELECT_TEAMS, (ResultSet rs) -> {
+            teams.put(rs.getLong(1), rs.getString(2));
+        });
+        return teams;
+    }
+
+    private void addRow(MemberColumns columns, ResultSet rs) throws SQLException {
+        final long teamId = rs.getLong(4);
+        columns.add(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.wasNull() ? MemberColumns.NO_TEAM : teamId);
+    }
+
+    private boolean containsTeams(MemberSnapshot current, MemberColumns reloaded) {
+        for (int row = 0; row < reloaded.size(); row++) {
+            if (!current.containsTeam(reloaded.teamId(row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
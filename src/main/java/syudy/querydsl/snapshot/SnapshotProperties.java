@@ -0,0 +1,30 @@
+package syudy.querydsl.snapshot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.snapshot")
+public class SnapshotProperties {
+
+    private boolean enabled;
+
+    /* ChangeFeed 에 쌓인 변경 row 만 다시 읽어서 반영하는 주기 */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    /* ChangeFeed 를 거치지 않는 변경 (importer, seed, 직접 실행한 SQL) 까지 반영하기 위한 전체 재적재 주기 */
+    private Duration fullReloadInterval = Duration.ofMinutes(10);
+
+    /* 마지막 갱신 후 이 시간이 지나도록 갱신하지 못하면 (갱신 실패 등) DB 로 조회 */
+    private Duration maxStaleness = Duration.ofSeconds(5);
+
+    /* row 수가 이 이상이면 fork-join 병렬 스캔 */
+    private int parallelThreshold = 100_000;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+}
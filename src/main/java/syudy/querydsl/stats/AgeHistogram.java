@@ -0,0 +1,81 @@
+package syudy.querydsl.stats;
+
+import java.util.Arrays;
+
+/*
+    Member.age 의 equi-depth 히스토그램
+
+        - 각 버킷에 비슷한 개수의 row 가 들어가도록 경계를 정함 (나이가 몰린 구간은 버킷이 좁아짐)
+        - 버킷 i 는 (upperBounds[i - 1], upperBounds[i]] 구간, 첫 버킷은 [min, upperBounds[0]]
+        - 버킷 안에서는 나이가 고르게 분포한다고 보고 겹치는 비율만큼 row 수를 추정
+        - 한 나이에 row 가 많으면 버킷을 나누지 않기 때문에 버킷 수가 요청한 것보다 적을 수 있음
+*/
+public class AgeHistogram {
+
+    private final int min;
+    private final int[] upperBounds;
+    private final long[] counts;
+    private final long total;
+
+    private AgeHistogram(int min, int[] upperBounds, long[] counts, long total) {
+        this.min = min;
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+        this.total = total;
+    }
+
+    /* ages : 오름차순 나이 (중복 없음), frequencies : 나이별 row 수 */
+    public static AgeHistogram of(int[] ages, long[] frequencies, int bucketCount) {
+        final long total = Arrays.stream(frequencies).sum();
+        if (ages.length == 0) {
+            return new AgeHistogram(0, new int[0], new long[0], 0L);
+        }
+        final int[] upperBounds = new int[Math.min(bucketCount, ages.length)];
+        final long[] counts = new long[upperBounds.length];
+        int bucket = 0;
+        long accumulated = 0L;
+        long bucketRows = 0L;
+        for (int i = 0; i < ages.length; i++) {
+            accumulated += frequencies[i];
+            bucketRows += frequencies[i];
+            final boolean last = i == ages.length - 1;
+            if (last || accumulated * upperBounds.length >= total * (bucket + 1)) {
+                upperBounds[bucket] = ages[i];
+                counts[bucket] = bucketRows;
+                bucket++;
+                bucketRows = 0L;
+            }
+        }
+        return new AgeHistogram(ages[0], Arrays.copyOf(upperBounds, bucket), Arrays.copyOf(counts, bucket), total);
+    }
+
+    /* ageGoe <= age <= ageLoe 인 row 수 추정 (null 이면 조건 없음) */
+    public long estimate(Integer ageGoe, Integer ageLoe) {
+        final long low = ageGoe == null ? Long.MIN_VALUE : ageGoe;
+        final long high = ageLoe == null ? Long.MAX_VALUE : ageLoe;
+        if (low > high) {
+            return 0L;
+        }
+        double rows = 0;
+        long bucketLow = min;
+        for (int i = 0; i < upperBounds.length; i++) {
+            final long bucketHigh = upperBounds[i];
+            final long overlapLow = Math.max(low, bucketLow);
+            final long overlapHigh = Math.min(high, bucketHigh);
+            if (overlapLow <= overlapHigh) {
+                rows += counts[i] * (double) (overlapHigh - overlapLow + 1) / (bucketHigh - bucketLow + 1);
+            }
+            bucketLow = bucketHigh + 1;
+        }
+        return Math.round(rows);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getBucketCount() {
+        return upperBounds.length;
+    }
+
+}
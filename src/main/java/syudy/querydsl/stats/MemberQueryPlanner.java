@@ -0,0 +1,126 @@
+package syudy.querydsl.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.dto.MemberSearchCondition;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
+
+/*
+    MemberStatistics 를 주기적으로 다시 수집하고, 조회 전에 추정 row 수로 조회 방식을 정함
+
+        - 전체 개수 : 추정이 exactCountThreshold 이상이면 count 쿼리 생략하고 추정값 사용
+        - 결과 fetch : 추정이 streamingThreshold 이상이면 리스트 대신 커서
+        - 조인 순서 : 팀 이름 조건의 팀 회원 수가 나이 조건으로 남는 회원 수보다 적으면 Team 에서 시작 (member.team_id FK 인덱스)
+        - 통계가 아직 없거나 회원 수가 minRows 미만이면 항상 기본 방식 (정확한 count, 리스트, Member 에서 시작)
+*/
+@Slf4j
+public class MemberQueryPlanner implements DisposableBean {
+
+    private static final String SELECT_AGES = "select age, count(*) from member group by age order by age";
+    private static final String SELECT_TEAM_MEMBERS = "select t.name, count(*) from member m join team t on t.team_id = m.team_id group by t.name";
+    private static final String SELECT_DISTINCT_USERNAMES = "select count(distinct username) from member";
+
+    private final StatisticsProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledExecutorService collector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-statistics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile MemberStatistics statistics;
+
+    public MemberQueryPlanner(StatisticsProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        final long interval = properties.getRefreshInterval().toMillis();
+        collector.scheduleWithFixedDelay(this::collectQuietly, 0L, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public MemberStatistics collect() {
+        final List<Integer> ages = new ArrayList<>();
+        final List<Long> frequencies = new ArrayList<>();
+        jdbcTemplate.query(SELECT_AGES, (ResultSet rs) -> {
+            ages.add(rs.getInt(1));
+            frequencies.add(rs.getLong(2));
+        });
+        final Map<String, Long> teamMembers = new HashMap<>();
+        jdbcTemplate.query(SELECT_TEAM_MEMBERS, (ResultSet rs) -> {
+            teamMembers.put(rs.getString(1), rs.getLong(2));
+        });
+        final Long distinctUsernames = jdbcTemplate.queryForObject(SELECT_DISTINCT_USERNAMES, Long.class);
+
+        final AgeHistogram ageHistogram = AgeHistogram.of(ages.stream().mapToInt(Integer::intValue).toArray(),
+                                                          frequencies.stream().mapToLong(Long::longValue).toArray(),
+                                                          properties.getBuckets());
+        statistics = new MemberStatistics(ageHistogram.getTotal(), distinctUsernames == null ? 0L : distinctUsernames,
+                                          ageHistogram, teamMembers, System.currentTimeMillis());
+        return statistics;
+    }
+
+    /* count 쿼리 대신 사용할 추정 개수, 정확한 count 가 필요하면 empty */
+    public OptionalLong estimatedCount(MemberSearchCondition condition) {
+        final MemberStatistics current = usable();
+        if (current == null) {
+            return OptionalLong.empty();
+        }
+        final long estimate = current.estimateRows(condition);
+        return estimate >= properties.getExactCountThreshold() ? OptionalLong.of(estimate) : OptionalLong.empty();
+    }
+
+    public boolean streaming(MemberSearchCondition condition) {
+        final MemberStatistics current = usable();
+        return current != null && current.estimateRows(condition) >= properties.getStreamingThreshold();
+    }
+
+    public boolean driveFromTeam(MemberSearchCondition condition) {
+        final MemberStatistics current = usable();
+        if (current == null || isEmpty(condition.getTeamName())) {
+            return false;
+        }
+        final long teamMembers = current.estimateTeamMembers(condition.getTeamName());
+        return teamMembers < current.getAgeHistogram().estimate(condition.getAgeGoe(), condition.getAgeLoe());
+    }
+
+    public MemberStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void destroy() {
+        collector.shutdownNow();
+    }
+
+    private MemberStatistics usable() {
+        final MemberStatistics current = statistics;
+        return current == null || current.getMembers() < properties.getMinRows() ? null : current;
+    }
+
+    private void collectQuietly() {
+        try {
+            collect();
+        } catch (RuntimeException e) {
+            /* 이전 통계를 그대로 사용하고 다음 주기에 다시 수집 */
+            log.warn("member statistics collection failed", e);
+        }
+    }
+
+}
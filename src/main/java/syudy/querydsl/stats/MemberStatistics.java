@@ -0,0 +1,41 @@
+package syudy.querydsl.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import syudy.querydsl.dto.MemberSearchCondition;
+
+import java.util.Map;
+
+import static org.hibernate.annotations.common.util.StringHelper.isEmpty;
+
+/* 수집 시점의 member 통계 (조건끼리는 서로 독립이라고 보고 선택도를 곱함) */
+@Getter
+@AllArgsConstructor
+public class MemberStatistics {
+
+    private final long members;
+    private final long distinctUsernames;
+    private final AgeHistogram ageHistogram;
+    /* 팀 이름별 회원 수 (같은 이름의 팀은 합산) */
+    private final Map<String, Long> teamMembers;
+    private final long collectedAt;
+
+    public long estimateRows(MemberSearchCondition condition) {
+        if (members == 0L) {
+            return 0L;
+        }
+        double rows = ageHistogram.estimate(condition.getAgeGoe(), condition.getAgeLoe());
+        if (!isEmpty(condition.getTeamName())) {
+            rows *= (double) estimateTeamMembers(condition.getTeamName()) / members;
+        }
+        if (!isEmpty(condition.getUserName())) {
+            rows /= Math.max(1L, distinctUsernames);
+        }
+        return (long) Math.ceil(rows);
+    }
+
+    public long estimateTeamMembers(String teamName) {
+        return teamMembers.getOrDefault(teamName, 0L);
+    }
+
+}
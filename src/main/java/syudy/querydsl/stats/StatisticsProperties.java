@@ -0,0 +1,29 @@
+package syudy.querydsl.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.statistics")
+public class StatisticsProperties {
+
+    private boolean enabled = true;
+
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    private int buckets = 32;
+
+    /* 회원 수가 이보다 적으면 통계를 쓰지 않고 기본 방식으로 조회 (작은 테이블은 어느 쪽이든 차이가 없음) */
+    private long minRows = 10_000;
+
+    /* 추정 결과가 이 이상이면 count 쿼리 대신 추정값을 전체 개수로 사용 */
+    private long exactCountThreshold = 100_000;
+
+    /* 추정 결과가 이 이상이면 리스트로 한번에 받지 않고 커서로 나눠서 읽음 */
+    private long streamingThreshold = 10_000;
+
+}
@@ -0,0 +1,190 @@
+package syudy.querydsl.support.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import syudy.querydsl.cdc.ChangeEvent;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeSubscription;
+import syudy.querydsl.cdc.ChangeType;
+import syudy.querydsl.entity.Member;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    username -> member id 캐시 (MemberJpaRepository.findByUserName, findByUserNameUsingQuerydsl)
+
+        - TinyLfuCache 로 자주 조회되는 이름만 남김, 없는 이름도 NOT_FOUND 로 캐시 (negativeTtl)
+        - 회원 자체가 아니라 id 만 캐시 --> 호출한 쪽은 em.find 로 읽고 이름이 그대로인지 확인 (바뀌었거나 삭제됐으면 invalidate 후 DB 조회)
+        - 조회할 때마다 ChangeFeed 를 먼저 반영 : 회원 insert, username 변경이 있으면 그 회원의 현재 이름을 캐시에서 제거 (없는 이름 캐시 무효화)
+          importer, seed 도 등록한 회원을 ChangeFeed 에 발행하기 때문에 중복 이름이 생기면 바로 캐시에서 빠짐
+          ChangeFeed 를 거치지 않는 insert (다른 인스턴스, 직접 실행한 SQL) 는 ttl, negativeTtl 이 지나야 보임
+        - 조회 시작 후에 이름 변경이 반영됐으면 그 결과는 캐시하지 않음 (put 의 position)
+        - 읽기/쓰기 트랜잭션 안에서는 사용하지 않음 (커밋 전 변경이 보이는 조회를 캐시하거나, 캐시가 커밋 전 변경을 가리지 않도록)
+*/
+public class MemberUserNameCache implements MeterBinder {
+
+    public static final long NOT_FOUND = -1L;
+
+    private static final String CACHE = "member.username";
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final String USERNAME = "username";
+    private static final int POLL_SIZE = 10_000;
+    private static final int IN_CHUNK_SIZE = 512;
+
+    private final UserNameCacheProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeed changeFeed;
+    private final ChangeSubscription subscription;
+    private final TinyLfuCache<String, Entry> cache;
+
+    /* 마지막으로 username 이 바뀐 (또는 전체 무효화한) ChangeFeed 위치 */
+    private long invalidatedAt;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MemberUserNameCache(UserNameCacheProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeFeed = changeFeed;
+        this.subscription = changeFeed.subscribe();
+        this.cache = new TinyLfuCache<>(properties.getMaximumSize());
+    }
+
+    public boolean isUsable(String userName) {
+        return properties.isEnabled() && userName != null
+                && !(TransactionSynchronizationManager.isActualTransactionActive() && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /* 캐시된 member id, 없는 이름이면 NOT_FOUND, 캐시에 없으면 null */
+    public Long get(String userName) {
+        drain();
+        final Entry entry = cache.get(userName);
+        if (entry == null || entry.expiresAt - System.nanoTime() < 0L) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.memberId;
+    }
+
+    /* DB 조회 전에 받아두고 put 에 전달 (이 위치까지의 이벤트는 커밋 후 발행된 것이라 이후 DB 조회에 보임) */
+    public long position() {
+        drain();
+        synchronized (this) {
+            return subscription.getPosition();
+        }
+    }
+
+    /* memberId 가 null 이면 없는 이름으로 캐시 */
+    public void put(String userName, Long memberId, long position) {
+        drain();
+        synchronized (this) {
+            if (invalidatedAt > position) {
+                return;
+            }
+            final Duration ttl = memberId == null ? properties.getNegativeTtl() : properties.getTtl();
+            cache.put(userName, new Entry(memberId == null ? NOT_FOUND : memberId, System.nanoTime() + ttl.toNanos()));
+        }
+    }
+
+    public void invalidate(String userName) {
+        cache.invalidate(userName);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("querydsl.cache.requests", this, MemberUserNameCache::getHits).tag("cache", CACHE).tag("result", "hit").register(registry);
+        FunctionCounter.builder("querydsl.cache.requests", this, MemberUserNameCache::getMisses).tag("cache", CACHE).tag("result", "miss").register(registry);
+        FunctionCounter.builder("querydsl.cache.evictions", cache, TinyLfuCache::getEvictions).tag("cache", CACHE).register(registry);
+        FunctionCounter.builder("querydsl.cache.admission.rejections", cache, TinyLfuCache::getRejections).tag("cache", CACHE).register(registry);
+        Gauge.builder("querydsl.cache.hit.ratio", this, MemberUserNameCache::hitRatio).tag("cache", CACHE).register(registry);
+        Gauge.builder("querydsl.cache.size", this, MemberUserNameCache::size).tag("cache", CACHE).register(registry);
+    }
+
+    /*
+        ChangeFeed 에 새 이벤트가 있을 때만 반영 (없으면 위치 비교만)
+            - 이벤트는 lock 안에서 꺼내고 invalidatedAt 도 그때 올림 --> 그 전에 시작한 조회 결과는 put 에서 버려짐
+            - 바뀐 회원의 이름을 읽는 DB 조회는 lock 밖에서 (다른 조회가 DB 왕복을 기다리지 않도록)
+              이름을 지우기 전까지 잠깐 이전 값이 보일 수 있지만, 이벤트를 꺼내기 전과 같은 상태라 결과는 같음
+    */
+    private void drain() {
+        final List<Long> memberIds = new ArrayList<>();
+        synchronized (this) {
+            if (changeFeed.getLastSequence() == subscription.getPosition()) {
+                return;
+            }
+            List<ChangeEvent> events;
+            while (!(events = subscription.poll(POLL_SIZE)).isEmpty()) {
+                for (ChangeEvent event : events) {
+                    if (MEMBER.equals(event.getEntity()) && changesUserName(event)) {
+                        event.getIds().forEach(id -> memberIds.add((Long) id));
+                        invalidatedAt = event.getSequence();
+                    }
+                }
+            }
+            if (subscription.checkAndClearOverrun()) {
+                cache.invalidateAll();
+                invalidatedAt = subscription.getPosition();
+                return;
+            }
+        }
+        for (String userName : loadUserNames(memberIds)) {
+            cache.invalidate(userName);
+        }
+    }
+
+    /* 삭제는 호출한 쪽의 em.find 확인으로 걸러지기 때문에 insert 와 username 변경만 (변경 필드를 모르면 바뀐 것으로 취급) */
+    private boolean changesUserName(ChangeEvent event) {
+        return event.getType() == ChangeType.INSERT
+                || event.getType() == ChangeType.UPDATE && (event.getChangedFields().isEmpty() || event.getChangedFields().contains(USERNAME));
+    }
+
+    private List<String> loadUserNames(List<Long> memberIds) {
+        final List<String> userNames = new ArrayList<>(memberIds.size());
+        for (int from = 0; from < memberIds.size(); from += IN_CHUNK_SIZE) {
+            final Object[] chunk = memberIds.subList(from, Math.min(from + IN_CHUNK_SIZE, memberIds.size())).toArray();
+            final String placeholders = String.join(", ", Collections.nCopies(chunk.length, "?"));
+            userNames.addAll(jdbcTemplate.queryForList("select username from member where member_id in (" + placeholders + ")", String.class, chunk));
+        }
+        return userNames;
+    }
+
+    private double hitRatio() {
+        final double total = hits.get() + misses.get();
+        return total == 0 ? 0 : hits.get() / total;
+    }
+
+    private static final class Entry {
+
+        private final long memberId;
+        private final long expiresAt;
+
+        private Entry(long memberId, long expiresAt) {
+            this.memberId = memberId;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+package syudy.querydsl.support.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.ToDoubleFunction;
+
+/*
+    캐시별 hit/miss 메트릭 (actuator /metrics/querydsl.cache.requests?tag=cache:...)
+
+        - hibernate.query-plan : JPQL -> SQL 변환 결과 캐시 (hibernate.query.plan_cache_max_size)
+          Hibernate 통계가 필요해서 querydsl.statement-cache.plan-statistics=true 일 때만 등록
+        - jdbc.statement : prepared statement 캐시 (H2 QUERY_CACHE_SIZE) 는 적중률 대신 distinct SQL 수와 캐시 크기만
+*/
+public class QueryCacheMetrics implements MeterBinder {
+
+    private static final String REQUESTS = "querydsl.cache.requests";
+    private static final String HIT_RATIO = "querydsl.cache.hit.ratio";
+
+    private final EntityManagerFactory emf;
+    private final StatementCacheMonitor statementCacheMonitor;
+    private final boolean planStatistics;
+
+    public QueryCacheMetrics(EntityManagerFactory emf, StatementCacheMonitor statementCacheMonitor, boolean planStatistics) {
+        this.emf = emf;
+        this.statementCacheMonitor = statementCacheMonitor;
+        this.planStatistics = planStatistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (planStatistics) {
+            /* deferred bootstrap 에서 EntityManagerFactory 초기화를 기다리지 않도록 조회 시점에 unwrap */
+            bind(registry, "hibernate.query-plan", this, m -> m.statistics().getQueryPlanCacheHitCount(), m -> m.statistics().getQueryPlanCacheMissCount());
+        }
+
+        Gauge.builder("querydsl.cache.distinct.statements", statementCacheMonitor, StatementCacheMonitor::getDistinctStatements)
+             .tag("cache", "jdbc.statement")
+             .register(registry);
+        Gauge.builder("querydsl.cache.size", statementCacheMonitor, StatementCacheMonitor::getSize)
+             .tag("cache", "jdbc.statement")
+             .register(registry);
+    }
+
+    private <T> void bind(MeterRegistry registry, String cache, T source, ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        FunctionCounter.builder(REQUESTS, source, hits).tag("cache", cache).tag("result", "hit").register(registry);
+        FunctionCounter.builder(REQUESTS, source, misses).tag("cache", cache).tag("result", "miss").register(registry);
+        Gauge.builder(HIT_RATIO, source, s -> ratio(hits.applyAsDouble(s), misses.applyAsDouble(s))).tag("cache", cache).register(registry);
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private double ratio(double hits, double misses) {
+        final double total = hits + misses;
+        return total == 0 ? 0 : hits / total;
+    }
+
+}
@@ -0,0 +1,40 @@
+package syudy.querydsl.support.cache;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Hibernate 가 prepare 하는 SQL 의 종류 수를 센다 (prepared statement 캐시 크기를 정하는 용도)
+
+        - H2 는 커넥션마다 QUERY_CACHE_SIZE 크기의 LRU 로 같은 SQL 문자열의 prepare 결과를 재사용하지만 적중 횟수를 알려주지 않음
+          (스레드 단위로 흉내낸 적중률은 커넥션과 스레드가 1:1 이 아니라서, 특히 virtual thread 에서는 의미가 없어 측정하지 않음)
+        - distinct SQL 수는 정확한 값 --> 이 값보다 캐시가 작으면 miss 가 계속 발생
+        - 검색 조건 조합(null 조건 생략)마다 SQL 이 달라지기 때문에 distinct 수로 캐시 크기를 정함
+*/
+public class StatementCacheMonitor implements StatementInspector {
+
+    private final int size;
+
+    private final Set<String> distinct = ConcurrentHashMap.newKeySet();
+
+    public StatementCacheMonitor(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        distinct.add(sql);
+        return sql;
+    }
+
+    public int getDistinctStatements() {
+        return distinct.size();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+}
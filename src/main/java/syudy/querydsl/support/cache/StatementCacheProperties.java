@@ -0,0 +1,18 @@
+package syudy.querydsl.support.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.statement-cache")
+public class StatementCacheProperties {
+
+    /* 커넥션(세션)당 prepared statement 캐시 크기, datasource url 의 H2 QUERY_CACHE_SIZE 와 같게 설정 */
+    private int size = 64;
+
+    /* Hibernate 통계 수집 (hibernate.generate_statistics), query plan 캐시 hit/miss 를 볼 때만 켬 (모든 세션에 수집 비용) */
+    private boolean planStatistics;
+
+}
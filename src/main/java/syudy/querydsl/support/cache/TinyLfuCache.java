@@ -0,0 +1,129 @@
+package syudy.querydsl.support.cache;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    크기 제한 캐시 (W-TinyLFU)
+
+        - window (LRU, 전체의 1%) : 새 key 는 여기로, 짧은 시간 몰리는 접근을 흡수
+        - main (SLRU) : probation (20%) 에서 다시 접근되면 protected (80%) 로 승격, protected 가 넘치면 오래된 것부터 probation 으로
+        - window 에서 밀려난 key 는 probation 에서 다음에 밀려날 key 보다 접근 빈도(FrequencySketch)가 높을 때만 main 에 들어감
+          --> 한번 조회되고 마는 key 가 대량으로 지나가도 (scan) 자주 쓰는 key 는 main 에 남음
+        - 빈도는 get 할 때 (hit, miss 모두) 기록, 메서드마다 synchronized
+*/
+public class TinyLfuCache<K, V> {
+
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final int protectedMaximum;
+    private final FrequencySketch sketch;
+
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long evictions;
+    private long rejections;
+
+    public TinyLfuCache(int maximumSize) {
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.mainMaximum = Math.max(0, maximumSize - windowMaximum);
+        this.protectedMaximum = mainMaximum * 4 / 5;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            protectedSegment.put(key, value);
+            demoteProtected();
+            return value;
+        }
+        return protectedSegment.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+            return;
+        }
+        if (probation.containsKey(key)) {
+            probation.put(key, value);
+            return;
+        }
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+            return;
+        }
+        window.put(key, value);
+        if (window.size() > windowMaximum) {
+            final Map.Entry<K, V> candidate = removeEldest(window);
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    /* 크기 제한으로 밀려난 key 수 (admission 에서 거절된 key 포함) */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /* window 에서 밀려났지만 빈도가 낮아 main 에 들어가지 못한 key 수 */
+    public synchronized long getRejections() {
+        return rejections;
+    }
+
+    private void admit(K key, V value) {
+        if (probation.size() + protectedSegment.size() < mainMaximum) {
+            probation.put(key, value);
+            return;
+        }
+        evictions++;
+        final LinkedHashMap<K, V> victims = probation.isEmpty() ? protectedSegment : probation;
+        if (victims.isEmpty() || sketch.frequency(key) <= sketch.frequency(victims.keySet().iterator().next())) {
+            rejections++;
+            return;
+        }
+        removeEldest(victims);
+        probation.put(key, value);
+    }
+
+    private void demoteProtected() {
+        while (protectedSegment.size() > protectedMaximum) {
+            final Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> segment) {
+        final Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+        final Map.Entry<K, V> eldest = iterator.next();
+        final Map.Entry<K, V> removed = new AbstractMap.SimpleImmutableEntry<>(eldest);
+        iterator.remove();
+        return removed;
+    }
+
+}
@@ -0,0 +1,28 @@
+package syudy.querydsl.support.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.user-name-cache")
+public class UserNameCacheProperties {
+
+    private boolean enabled = true;
+
+    /* 캐시하는 username 수 (없는 이름 포함) */
+    private int maximumSize = 10_000;
+
+    /*
+        회원이 있는 이름, 조회할 때마다 id 로 다시 읽어서 이름을 확인하기 때문에 삭제/이름 변경은 바로 반영됨
+        ChangeFeed 를 거치지 않는 insert (다른 인스턴스, 직접 실행한 SQL) 로 생긴 중복 이름은 만료될 때까지 보이지 않음
+    */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /* 없는 이름, ChangeFeed 를 거치지 않는 insert 가 보이기까지 최대 시간 */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,42 @@
+package syudy.querydsl.support.fair;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.fair-scheduler")
+public class FairSchedulerProperties {
+
+    private boolean enabled = true;
+
+    /* 전체 동시 실행 수 (limiter 의 현재 limit 가 더 작으면 그 값) */
+    private int maxConcurrency = 10;
+
+    /* 요청자 하나가 동시에 실행할 수 있는 최대 수 --> 나머지 자리는 항상 다른 요청자 몫 (요청자를 모르는 SHARED 포함) */
+    private int defaultQuota = 6;
+
+    /* 가중치가 클수록 같은 시간에 더 많이 실행 (자리가 날 때 먼저 선택될 확률이 비례) */
+    private int defaultWeight = 1;
+
+    /* 요청자별 설정 (key : 요청자, TenantFilter 의 principal 이름 또는 tenantHeader 값, 요청자를 모르면 shared) */
+    private Map<String, Integer> quotas = new HashMap<>();
+    private Map<String, Integer> weights = new HashMap<>();
+
+    /* 요청자별 대기열 크기, 가득 차면 즉시 거절 (다른 요청자의 대기에는 영향 없음) */
+    private int maxQueueSizePerTenant = 20;
+
+    private Duration maxWait = Duration.ofMillis(500);
+
+    /* 요청자를 읽을 header (gateway 가 지정하는 header 만), 비어 있으면 인증된 principal 만 사용 */
+    private String tenantHeader;
+
+    /* 대기 시간 메트릭에 요청자 이름을 tag 로 남기는 최대 수, 넘으면 tenant=other */
+    private int maxTaggedTenants = 100;
+
+}
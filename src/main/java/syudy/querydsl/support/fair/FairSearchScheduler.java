@@ -0,0 +1,263 @@
+package syudy.querydsl.support.fair;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.limit.ConcurrencyLimitExceededException;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+    요청자별 대기열을 두고 가중치 공정 큐잉 (start-time fair queuing) 으로 실행 순서를 정하는 스케줄러 (limiter 앞단)
+
+        - 요청마다 시작 태그 = max(가상 시간, 그 요청자의 직전 종료 태그), 종료 태그 = 시작 태그 + 1 / weight
+        - 자리가 나면 quota 가 남은 요청자 중 대기열 맨 앞 요청의 시작 태그가 가장 작은 것부터 실행, 가상 시간은 실행한 요청의 시작 태그
+          --> 요청을 몰아서 보내는 팀은 태그가 계속 뒤로 밀리고, 가끔 보내는 팀은 바로 앞 순서를 받음
+        - 쉬고 있던 요청자는 태그가 가상 시간부터 다시 시작 (쉰 만큼 몰아서 실행할 권리를 쌓지 않음)
+        - 요청자별 quota 로 한 팀이 전체 자리를 차지하지 못하게 하고, 대기열도 요청자별로 제한 (가득 차면 그 팀 요청만 거절)
+        - 요청자를 모르는 검색이 모두 묶이는 SHARED 도 같은 quota --> 나머지 자리는 항상 요청자가 지정된 검색 몫
+        - 전체 자리는 maxConcurrency 와 limiter 의 현재 limit 중 작은 값 --> 대기는 여기서 하고 limiter 대기열은 거의 비어 있음
+        - 대기 시간은 querydsl.scheduler.queue.time{tenant} (p50, p99) 로 확인
+*/
+public class FairSearchScheduler implements MeterBinder {
+
+    private static final String OTHER = "other";
+
+    private final FairSchedulerProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, TenantQueue> tenants = new LinkedHashMap<>();
+    private double virtualTime;
+    private int inFlight;
+    private int waiting;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final ConcurrentMap<String, Timer> queueTimers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public FairSearchScheduler(FairSchedulerProperties properties, AdaptiveConcurrencyLimiter limiter) {
+        this.properties = properties;
+        this.limiter = limiter;
+    }
+
+    public <T> T execute(String tenant, Supplier<T> action) {
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+
+        final Ticket ticket = acquire(tenant);
+        try {
+            return action.get();
+        } finally {
+            release(ticket);
+        }
+    }
+
+    public Ticket acquire(String tenant) {
+        final long enqueuedAt = System.nanoTime();
+        final Ticket ticket;
+        lock.lock();
+        try {
+            final TenantQueue queue = tenants.computeIfAbsent(tenant, TenantQueue::new);
+            if (queue.waiting.size() >= properties.getMaxQueueSizePerTenant()) {
+                throw reject(tenant, "queue is full");
+            }
+            final double start = Math.max(virtualTime, queue.lastFinish);
+            queue.lastFinish = start + 1.0 / weight(tenant);
+            ticket = new Ticket(queue, start, lock.newCondition());
+            queue.waiting.add(ticket);
+            waiting++;
+            dispatch();
+            await(ticket);
+        } finally {
+            lock.unlock();
+        }
+        recordQueueTime(tenant, System.nanoTime() - enqueuedAt);
+        return ticket;
+    }
+
+    public void release(Ticket ticket) {
+        lock.lock();
+        try {
+            inFlight--;
+            ticket.queue.inFlight--;
+            removeIfIdle(ticket.queue);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* 현재 요청자별 실행 수 */
+    public Map<String, Integer> getInFlightByTenant() {
+        lock.lock();
+        try {
+            final Map<String, Integer> result = new HashMap<>();
+            tenants.forEach((tenant, queue) -> result.put(tenant, queue.inFlight));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("querydsl.scheduler.inflight", this, FairSearchScheduler::getInFlight).register(registry);
+        Gauge.builder("querydsl.scheduler.waiting", this, FairSearchScheduler::getWaiting).register(registry);
+        FunctionCounter.builder("querydsl.scheduler.rejected", this, FairSearchScheduler::getRejected).register(registry);
+    }
+
+    /* 자리가 남아 있는 동안 시작 태그가 가장 작은 요청부터 실행 */
+    private void dispatch() {
+        final int capacity = Math.min(properties.getMaxConcurrency(), limiter.getLimit());
+        while (inFlight < capacity) {
+            TenantQueue next = null;
+            for (TenantQueue queue : tenants.values()) {
+                if (queue.waiting.isEmpty() || queue.inFlight >= quota(queue.tenant)) {
+                    continue;
+                }
+                if (next == null || queue.waiting.peek().start < next.waiting.peek().start) {
+                    next = queue;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            final Ticket ticket = next.waiting.poll();
+            ticket.granted = true;
+            next.inFlight++;
+            inFlight++;
+            waiting--;
+            virtualTime = Math.max(virtualTime, ticket.start);
+            ticket.condition.signal();
+        }
+    }
+
+    private void await(Ticket ticket) {
+        long remaining = properties.getMaxWait().toNanos();
+        try {
+            while (!ticket.granted) {
+                if (remaining <= 0L) {
+                    cancel(ticket);
+                    throw reject(ticket.queue.tenant, "waited " + properties.getMaxWait().toMillis() + "ms");
+                }
+                remaining = ticket.condition.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            /* 자리를 받은 직후에 interrupt 되었으면 반납 */
+            if (ticket.granted) {
+                release(ticket);
+            } else {
+                cancel(ticket);
+            }
+            throw reject(ticket.queue.tenant, "interrupted");
+        }
+    }
+
+    private void cancel(Ticket ticket) {
+        ticket.queue.waiting.remove(ticket);
+        waiting--;
+        removeIfIdle(ticket.queue);
+    }
+
+    /* 쉬는 요청자는 제거 --> 다시 오면 태그가 현재 가상 시간부터 시작 */
+    private void removeIfIdle(TenantQueue queue) {
+        if (queue.waiting.isEmpty() && queue.inFlight == 0) {
+            tenants.remove(queue.tenant);
+        }
+    }
+
+    private int quota(String tenant) {
+        return properties.getQuotas().getOrDefault(tenant, properties.getDefaultQuota());
+    }
+
+    private int weight(String tenant) {
+        return Math.max(1, properties.getWeights().getOrDefault(tenant, properties.getDefaultWeight()));
+    }
+
+    private void recordQueueTime(String tenant, long nanos) {
+        final MeterRegistry current = registry;
+        if (current == null) {
+            return;
+        }
+        final String tag = queueTimers.containsKey(tenant) || queueTimers.size() < properties.getMaxTaggedTenants() ? tenant : OTHER;
+        queueTimers.computeIfAbsent(tag, t -> Timer.builder("querydsl.scheduler.queue.time")
+                                                   .tag("tenant", t)
+                                                   .publishPercentiles(0.5, 0.99)
+                                                   .register(current))
+                   .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private ConcurrencyLimitExceededException reject(String tenant, String reason) {
+        rejected.incrementAndGet();
+        return new ConcurrencyLimitExceededException("search rejected by fair scheduler (" + reason + "), tenant : " + tenant);
+    }
+
+    /* 실행 자리 하나, acquire 로 받아서 release 로 반납 */
+    public static final class Ticket {
+
+        private final TenantQueue queue;
+        private final double start;
+        private final Condition condition;
+        private boolean granted;
+
+        private Ticket(TenantQueue queue, double start, Condition condition) {
+            this.queue = queue;
+            this.start = start;
+            this.condition = condition;
+        }
+
+    }
+
+    private static final class TenantQueue {
+
+        private final String tenant;
+        private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        private double lastFinish;
+        private int inFlight;
+
+        private TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package syudy.querydsl.support.fair;
+
+import java.util.function.Supplier;
+
+/*
+    현재 스레드의 요청자 (FairSearchScheduler 가 대기열을 나누는 기준)
+
+        - 지정하지 않으면 SHARED 로 묶임
+        - 믿을 수 있는 값으로만 지정 (TenantFilter 의 principal / gateway header, 배치) --> 검색 조건처럼 클라이언트가 고르는 값은 사용하지 않음
+          (요청마다 다른 값을 보내서 새 대기열과 quota 를 받는 것을 막기 위해)
+*/
+public final class TenantContext {
+
+    public static final String SHARED = "shared";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /* 지정된 요청자, 없으면 SHARED */
+    public static String resolve() {
+        final String current = CURRENT.get();
+        return current == null ? SHARED : current;
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> action) {
+        final String previous = enter(tenant);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /* checked 예외를 던지는 호출을 감쌀 때 (TenantFilter), 반환한 이전 값을 restore 에 전달 */
+    static String enter(String tenant) {
+        final String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+}
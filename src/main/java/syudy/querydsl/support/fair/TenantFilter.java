@@ -0,0 +1,60 @@
+package syudy.querydsl.support.fair;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+
+/*
+    요청을 보낸 쪽을 TenantContext 로 지정 (FairSearchScheduler 의 대기열, quota 기준)
+
+        - 인증된 요청이면 principal 이름
+        - 아니면 tenantHeader 로 지정한 header (앞단 gateway 가 덮어쓰는 header 만 사용, 클라이언트가 보낸 값을 그대로 믿지 않도록)
+        - 둘 다 없으면 지정하지 않음 --> SHARED
+*/
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final FairSchedulerProperties properties;
+
+    public TenantFilter(FairSchedulerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final String tenant = tenant(request);
+        if (tenant == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final String previous = TenantContext.enter(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+
+    private String tenant(HttpServletRequest request) {
+        final Principal principal = request.getUserPrincipal();
+        if (principal != null && !isEmpty(principal.getName())) {
+            return principal.getName();
+        }
+        final String header = properties.getTenantHeader();
+        if (isEmpty(header)) {
+            return null;
+        }
+        final String value = request.getHeader(header);
+        return isEmpty(value) ? null : value;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+}
@@ -0,0 +1,174 @@
+package syudy.querydsl.support.flight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import syudy.querydsl.support.timeout.QueryDeadline;
+import syudy.querydsl.support.timeout.QueryDeadlineExceededException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+    같은 key 로 동시에 들어온 요청은 하나만 실행하고 나머지는 그 결과를 기다려서 공유 (single-flight)
+
+        - 먼저 putIfAbsent 에 성공한 스레드가 실행, 락 없이 ConcurrentHashMap 의 원자적 연산만 사용
+        - 실행이 끝난 결과는 ttl 동안 같은 key 요청에 그대로 반환 (ttl 이 지나면 다음 요청이 다시 실행)
+        - 실패하면 바로 제거 --> 기다리던 요청은 같은 예외, 이후 요청은 다시 실행
+        - 실행한 요청이 취소/시간 초과로 실패하면 (그 요청의 QueryDeadline, query timeout) 기다리던 요청은 예외 대신 자기가 다시 실행
+        - 기다리는 요청도 자기 QueryDeadline 만큼만 기다리고, 취소되면 바로 중단
+        - 결과 객체를 여러 호출자가 공유하기 때문에 호출자는 결과를 수정하면 안 됨
+*/
+public class SingleFlight implements MeterBinder {
+
+    private final SingleFlightProperties properties;
+    private final ConcurrentMap<Object, Flight> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    public SingleFlight(SingleFlightProperties properties) {
+        this.properties = properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> action) {
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+        final long ttl = properties.getTtl().toNanos();
+        while (true) {
+            final Flight current = flights.get(key);
+            if (current != null && !current.isExpired(System.nanoTime(), ttl)) {
+                shared.incrementAndGet();
+                try {
+                    return (T) await(current.result, QueryDeadline.current());
+                } catch (RuntimeException e) {
+                    /* 실행한 요청만의 취소/시간 초과는 기다리던 요청의 실패가 아님 --> 실패한 flight 는 이미 제거됐으므로 다시 시도 */
+                    if (current.result.isCompletedExceptionally() && isAborted(e)) {
+                        continue;
+                    }
+                    throw e;
+                }
+            }
+
+            final Flight mine = new Flight();
+            final boolean won = current == null ? flights.putIfAbsent(key, mine) == null : flights.replace(key, current, mine);
+            if (!won) {
+                continue;
+            }
+            executions.incrementAndGet();
+            sweepIfNeeded(ttl);
+            try {
+                final T result = action.get();
+                mine.complete(result);
+                if (ttl == 0L) {
+                    flights.remove(key, mine);
+                }
+                return result;
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, mine);
+                mine.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getShared() {
+        return shared.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("querydsl.single-flight.executions", this, SingleFlight::getExecutions).register(registry);
+        FunctionCounter.builder("querydsl.single-flight.shared", this, SingleFlight::getShared).register(registry);
+    }
+
+    /* 기다리는 요청의 마감 시간까지만 대기, 취소되면 (QueryDeadline.cancel) 바로 중단 */
+    private Object await(CompletableFuture<Object> result, QueryDeadline deadline) {
+        if (deadline == null) {
+            return join(result);
+        }
+        deadline.check();
+        final CompletableFuture<Object> cancelled = new CompletableFuture<>();
+        deadline.onCancel(() -> cancelled.complete(null));
+        try {
+            CompletableFuture.anyOf(result, cancelled).get(Math.max(0L, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            /* 결과가 실패했으면 아래 join 에서 같은 예외 */
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryDeadlineExceededException("query interrupted");
+        } finally {
+            deadline.onCancel(null);
+        }
+        if (!result.isDone()) {
+            deadline.check();
+            throw new QueryDeadlineExceededException("query deadline exceeded");
+        }
+        return join(result);
+    }
+
+    private static boolean isAborted(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryDeadlineExceededException
+                    || cause instanceof javax.persistence.QueryTimeoutException
+                    || cause instanceof org.springframework.dao.QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object join(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void sweepIfNeeded(long ttl) {
+        if (flights.size() > properties.getSweepThreshold()) {
+            final long now = System.nanoTime();
+            flights.values().removeIf(flight -> flight.isExpired(now, ttl));
+        }
+    }
+
+    private static class Flight {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        /* 0 이면 실행 중 */
+        private volatile long completedAt;
+
+        private void complete(Object value) {
+            completedAt = System.nanoTime();
+            result.complete(value);
+        }
+
+        private boolean isExpired(long now, long ttl) {
+            final long completed = completedAt;
+            return completed != 0L && now - completed >= ttl;
+        }
+
+    }
+
+}
@@ -0,0 +1,22 @@
+package syudy.querydsl.support.flight;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.single-flight")
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+
+    /* 실행이 끝난 뒤에도 결과를 공유하는 시간, 0 이면 실행 중인 요청끼리만 공유 */
+    private Duration ttl = Duration.ofMillis(100);
+
+    /* 이보다 많이 쌓이면 만료된 결과를 정리 */
+    private int sweepThreshold = 1_000;
+
+}
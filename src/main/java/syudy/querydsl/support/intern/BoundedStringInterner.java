@@ -0,0 +1,47 @@
+package syudy.querydsl.support.intern;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    조회 한번(쿼리 단위)에서만 사용하는 문자열 중복 제거 테이블
+
+        - JDBC 는 row 마다 새로운 String 을 만들기 때문에 같은 팀 이름이 row 수만큼 heap 에 남는다
+        - 같은 값이면 처음 만난 인스턴스를 재사용하도록 바꿔서, 나머지는 GC 대상이 되도록 함
+        - String.intern() 과 달리 쿼리가 끝나면 테이블도 같이 버려지고, maxSize 를 넘으면 더 이상 등록하지 않음
+*/
+public class BoundedStringInterner {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private final int maxSize;
+    private final Map<String, String> table = new HashMap<>();
+
+    public BoundedStringInterner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public BoundedStringInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        final String canonical = table.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (table.size() < maxSize) {
+            table.put(value, value);
+        }
+        return value;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+}
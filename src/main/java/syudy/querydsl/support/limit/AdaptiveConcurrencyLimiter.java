@@ -0,0 +1,150 @@
+package syudy.querydsl.support.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+    AIMD (Additive Increase, Multiplicative Decrease) 방식의 동시 실행 제한기
+
+        - 동시 실행 수가 limit 에 도달한 상태에서 응답이 빠르면 limit + 1
+        - 응답이 latencyThreshold 를 넘으면 limit * backoffRatio
+        - limit 를 넘는 요청은 최대 maxWait 만큼 대기하고, 대기열이 가득 찼거나 시간이 지나면 즉시 거절
+
+    getConnection 에서 무작정 기다리면서 지연시간이 늘어나는 대신, 빠르게 실패시키기 위한 용도
+*/
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final LimiterProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AdaptiveConcurrencyLimiter(LimiterProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (!properties.isEnabled()) {
+            return action.get();
+        }
+
+        acquire();
+        final long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            release(System.nanoTime() - start);
+        }
+    }
+
+    public void acquire() {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return;
+            }
+            if (waiting >= properties.getMaxQueueSize()) {
+                throw reject("queue is full");
+            }
+
+            waiting++;
+            try {
+                long remaining = properties.getMaxWait().toNanos();
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0L) {
+                        throw reject("waited " + properties.getMaxWait().toMillis() + "ms");
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject("interrupted");
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            final boolean saturated = inFlight >= currentLimit();
+            inFlight--;
+
+            if (latencyNanos > properties.getLatencyThreshold().toNanos()) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (saturated) {
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("querydsl.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(registry);
+        Gauge.builder("querydsl.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight).register(registry);
+        Gauge.builder("querydsl.limiter.waiting", this, AdaptiveConcurrencyLimiter::getWaiting).register(registry);
+        Gauge.builder("querydsl.limiter.rejected", this, AdaptiveConcurrencyLimiter::getRejected).register(registry);
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private ConcurrencyLimitExceededException reject(String reason) {
+        rejected.incrementAndGet();
+        return new ConcurrencyLimitExceededException("search rejected by concurrency limiter (" + reason + "), limit : " + currentLimit());
+    }
+
+}
@@ -0,0 +1,9 @@
+package syudy.querydsl.support.limit;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+
+}
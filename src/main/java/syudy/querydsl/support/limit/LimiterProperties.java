@@ -0,0 +1,28 @@
+package syudy.querydsl.support.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.limiter")
+public class LimiterProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 10;
+    private int minLimit = 1;
+    private int maxLimit = 10;
+
+    /* 응답 시간이 이 값을 넘으면 과부하로 판단하여 limit 를 줄인다 */
+    private Duration latencyThreshold = Duration.ofMillis(200);
+    private double backoffRatio = 0.9;
+
+    /* 대기열이 가득 차거나 maxWait 동안 자리가 나지 않으면 즉시 거절 */
+    private int maxQueueSize = 50;
+    private Duration maxWait = Duration.ofMillis(100);
+
+}
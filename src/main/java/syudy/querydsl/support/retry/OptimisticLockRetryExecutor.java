@@ -0,0 +1,62 @@
+package syudy.querydsl.support.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/*
+    낙관적 락 충돌 시 새로운 트랜잭션으로 다시 시도
+
+        - 재시도는 반드시 새 트랜잭션(새 영속성 컨텍스트)에서 해야 최신 version 을 다시 읽는다 --> REQUIRES_NEW
+        - 최대 maxAttempts 번 시도하고, 시도 사이에는 지수 백오프 + jitter 로 대기
+*/
+@Slf4j
+public class OptimisticLockRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final RetryProperties properties;
+
+    public OptimisticLockRetryExecutor(PlatformTransactionManager transactionManager, RetryProperties properties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    throw e;
+                }
+                log.debug(" --> optimistic lock conflict, retry attempt {} : {}", attempt, e.getMessage());
+                sleep(backoffMillis(attempt));
+                attempt++;
+            }
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        final double backoff = properties.getInitialBackoff().toMillis() * Math.pow(properties.getMultiplier(), attempt - 1);
+        final long capped = (long) Math.min(backoff, properties.getMaxBackoff().toMillis());
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for optimistic lock retry", e);
+        }
+    }
+
+}
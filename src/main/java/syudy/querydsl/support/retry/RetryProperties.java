@@ -0,0 +1,21 @@
+package syudy.querydsl.support.retry;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.retry")
+public class RetryProperties {
+
+    private int maxAttempts = 3;
+
+    /* attempt 마다 initialBackoff * multiplier^(attempt-1) 에 jitter 를 더해서 대기 */
+    private Duration initialBackoff = Duration.ofMillis(10);
+    private double multiplier = 2.0;
+    private Duration maxBackoff = Duration.ofMillis(200);
+
+}
@@ -0,0 +1,53 @@
+package syudy.querydsl.support.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+    기동 시간 리포트
+
+        - 빈 마다 초기화(postProcessBefore ~ postProcessAfter) 에 걸린 시간을 기록
+        - ApplicationReadyEvent 시점에 JVM 기동 후 경과 시간과 가장 오래 걸린 빈 목록 출력
+*/
+@Slf4j
+public class StartupTimeReporter implements BeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final int TOP_BEANS = 10;
+
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> elapsed = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        startedAt.put(beanName, System.nanoTime());
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        final Long start = startedAt.remove(beanName);
+        if (start != null) {
+            elapsed.put(beanName, System.nanoTime() - start);
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info(" --> Startup : {} ms since JVM start, {} beans initialized eagerly",
+                 ManagementFactory.getRuntimeMXBean().getUptime(), elapsed.size());
+        elapsed.entrySet()
+               .stream()
+               .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+               .limit(TOP_BEANS)
+               .forEach(entry -> log.info(" --> Startup : {} ms {}", TimeUnit.NANOSECONDS.toMillis(entry.getValue()), entry.getKey()));
+    }
+
+}
@@ -0,0 +1,81 @@
+package syudy.querydsl.support.timeout;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/*
+    요청 하나의 마감 시간과 취소 여부 (현재 스레드에 지정, ShardContext 와 같은 방식)
+
+        - Repository 는 쿼리마다 남은 시간만큼만 timeout 을 걸고, 시작 전에 이미 지났거나 취소됐으면 실행하지 않음
+        - cancel() 은 다른 스레드(클라이언트 연결 종료를 감지한 쪽, 타이머 등)에서 호출
+          실행 중인 쿼리는 등록된 취소 동작(Session.cancelQuery)으로 중단, 이후 쿼리는 시작 전에 QueryDeadlineExceededException
+*/
+public class QueryDeadline {
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private volatile Runnable onCancel;
+
+    private QueryDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static QueryDeadline after(Duration timeout) {
+        return new QueryDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callWithin(QueryDeadline deadline, Supplier<T> action) {
+        final QueryDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+        final Runnable action = onCancel;
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long remainingMillis() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime()).toMillis();
+    }
+
+    /* 취소됐거나 마감 시간이 지났으면 예외 */
+    public void check() {
+        if (cancelled) {
+            throw new QueryDeadlineExceededException("query cancelled");
+        }
+        if (System.nanoTime() - deadlineNanos >= 0L) {
+            throw new QueryDeadlineExceededException("query deadline exceeded");
+        }
+    }
+
+    /* 실행 중인 쿼리를 중단하는 동작, 쿼리가 끝나면 null 로 해제 */
+    public void onCancel(Runnable action) {
+        this.onCancel = action;
+        if (action != null && cancelled) {
+            action.run();
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package syudy.querydsl.support.timeout;
+
+public class QueryDeadlineExceededException extends RuntimeException {
+
+    public QueryDeadlineExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,57 @@
+package syudy.querydsl.support.timeout;
+
+import com.querydsl.jpa.impl.JPAQuery;
+
+import java.util.Collection;
+
+/*
+    Repository 메서드별 쿼리 timeout 과 최대 row 수
+
+        - timeout = min(메서드별 설정, 현재 요청의 QueryDeadline 남은 시간)
+        - javax.persistence.query.timeout 힌트로 전달 --> JDBC Statement.setQueryTimeout, 시간이 지나면 DB 가 실행을 중단하고 커넥션 반납
+        - Hibernate 가 힌트(ms)를 초 단위로 반올림하기 때문에 1초 단위로 올림 (0 이 되면 timeout 이 없어짐)
+*/
+public class QueryTimeoutPolicy {
+
+    public static final String TIMEOUT_HINT = "javax.persistence.query.timeout";
+
+    private static final long SECOND = 1_000L;
+
+    private final QueryTimeoutProperties properties;
+
+    public QueryTimeoutPolicy(QueryTimeoutProperties properties) {
+        this.properties = properties;
+    }
+
+    public <T> JPAQuery<T> apply(String method, JPAQuery<T> query) {
+        final QueryDeadline deadline = QueryDeadline.current();
+        if (deadline != null) {
+            deadline.check();
+        }
+        if (!properties.isEnabled()) {
+            return query;
+        }
+        long timeout = properties.getMethods().getOrDefault(method, properties.getDefaultTimeout()).toMillis();
+        if (deadline != null) {
+            timeout = Math.min(timeout, deadline.remainingMillis());
+        }
+        final long seconds = Math.max(1L, (timeout + SECOND - 1) / SECOND);
+        return query.setHint(TIMEOUT_HINT, (int) (seconds * SECOND));
+    }
+
+    /* 리스트 검색은 maxRows + 1 건까지만 가져와서 넘쳤는지 확인 */
+    public long rowLimit() {
+        return properties.isEnabled() ? properties.getMaxRows() + 1L : Long.MAX_VALUE;
+    }
+
+    public void checkRows(String method, Collection<?> rows) {
+        checkRows(method, rows.size());
+    }
+
+    public void checkRows(String method, long rows) {
+        if (properties.isEnabled() && rows > properties.getMaxRows()) {
+            throw new TooManyRowsException(method + " matched more than " + properties.getMaxRows() + " rows, narrow the condition or use forEachSearch");
+        }
+    }
+
+}
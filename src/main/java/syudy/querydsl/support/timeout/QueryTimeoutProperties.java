@@ -0,0 +1,27 @@
+package syudy.querydsl.support.timeout;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.query-timeout")
+public class QueryTimeoutProperties {
+
+    private boolean enabled = true;
+
+    /* methods 에 없는 Repository 메서드의 쿼리 하나당 최대 실행 시간 */
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    /* 메서드 이름별 최대 실행 시간 (search, complexSearch, forEachSearch ...) */
+    private Map<String, Duration> methods = new HashMap<>();
+
+    /* 리스트로 반환하는 검색의 최대 row 수, 넘으면 TooManyRowsException (많은 결과는 forEachSearch 로 나눠 읽음) */
+    private int maxRows = 10_000;
+
+}
@@ -0,0 +1,9 @@
+package syudy.querydsl.support.timeout;
+
+public class TooManyRowsException extends RuntimeException {
+
+    public TooManyRowsException(String message) {
+        super(message);
+    }
+
+}
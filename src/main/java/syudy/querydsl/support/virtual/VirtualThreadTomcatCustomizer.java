@@ -0,0 +1,37 @@
+package syudy.querydsl.support.virtual;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+/*
+    Tomcat 요청 처리 스레드 풀을 가상 스레드 executor 로 교체
+
+        - 요청마다 가상 스레드 하나 --> 요청 스레드에서 호출하는 Repository 도 가상 스레드에서 실행
+        - 블로킹(커넥션 대기, 쿼리 실행) 중에는 캐리어 스레드를 반납하기 때문에 server.tomcat.threads.max 로 크기를 정할 필요가 없음
+        - 대신 동시에 DB 를 사용하는 수는 AdaptiveConcurrencyLimiter 가 커넥션 풀 크기로 제한 (ReentrantLock 기반이라 캐리어를 붙잡지 않음)
+        - executor 를 빈으로 등록하면 applicationTaskExecutor 자동 설정이 빠지기 때문에 여기서 직접 들고 종료
+*/
+@Slf4j
+public class VirtualThreadTomcatCustomizer implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+    private final ExecutorService executor = VirtualThreads.newPerTaskExecutor("tomcat-virtual-");
+
+    @Override
+    public void customize(ProtocolHandler protocolHandler) {
+        if (protocolHandler instanceof AbstractProtocol) {
+            ((AbstractProtocol<?>) protocolHandler).setExecutor(executor);
+            log.info("tomcat request handling on virtual threads");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+}
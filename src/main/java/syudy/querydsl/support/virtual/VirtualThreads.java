@@ -0,0 +1,41 @@
+package syudy.querydsl.support.virtual;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+    JDK 21 가상 스레드 생성 (빌드는 Java 8 이라 API 를 직접 호출할 수 없어서 리플렉션 사용)
+
+        Thread.ofVirtual().name(prefix, 0).factory() --> Executors.newThreadPerTaskExecutor(factory)
+*/
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /* 작업마다 새 가상 스레드 (스레드 풀 크기 설정이 없음) */
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Object named = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            final ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(named);
+            final Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual threads require JDK 21 or later, running on " + System.getProperty("java.version"), e);
+        }
+    }
+
+}
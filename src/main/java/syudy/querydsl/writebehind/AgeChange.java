@@ -0,0 +1,57 @@
+package syudy.querydsl.writebehind;
+
+/* 같은 회원에 대한 나이 변경을 하나로 합친 값 : 절대값(set) 또는 증감(delta) */
+class AgeChange {
+
+    private boolean absolute;
+    private int value;
+    /* 따로 기록하다 실패한 횟수 */
+    private int attempts;
+
+    static AgeChange set(int age) {
+        final AgeChange change = new AgeChange();
+        change.absolute = true;
+        change.value = age;
+        return change;
+    }
+
+    static AgeChange delta(int delta) {
+        final AgeChange change = new AgeChange();
+        change.value = delta;
+        return change;
+    }
+
+    /* this 이후에 later 가 적용된 결과 (절대값으로 덮어쓰면 이전 변경의 실패 횟수도 사라짐) */
+    AgeChange then(AgeChange later) {
+        if (later.absolute) {
+            return later;
+        }
+        final AgeChange merged = new AgeChange();
+        merged.absolute = absolute;
+        merged.value = value + later.value;
+        merged.attempts = Math.max(attempts, later.attempts);
+        return merged;
+    }
+
+    /* 실패 횟수만 하나 늘린 같은 변경 */
+    AgeChange failed() {
+        final AgeChange failed = new AgeChange();
+        failed.absolute = absolute;
+        failed.value = value;
+        failed.attempts = attempts + 1;
+        return failed;
+    }
+
+    boolean isAbsolute() {
+        return absolute;
+    }
+
+    int getValue() {
+        return value;
+    }
+
+    int getAttempts() {
+        return attempts;
+    }
+
+}
@@ -0,0 +1,375 @@
+package syudy.querydsl.writebehind;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeType;
+import syudy.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/*
+    MemberRepository 앞단의 write-behind 버퍼 (querydsl.write-behind.enabled=true 일 때만 등록)
+
+        - 같은 회원 id 의 나이 변경은 메모리에서 하나로 합침 (set 은 덮어쓰고, 증감은 더함)
+        - flushSize 만큼 쌓이거나 flushInterval 마다 모아서 한 트랜잭션으로 기록 --> 커밋 횟수 감소, 최대 지연 = flushInterval
+        - capacity 가 가득 차면 호출한 스레드가 offerTimeout 동안 대기 후 WriteBehindRejectedException (backpressure)
+        - 종료 시 남은 변경을 모두 기록
+        - 한 트랜잭션으로 기록하다 실패하면 DB 에 접속할 수 있는지 먼저 확인
+            - 접속할 수 없으면 (DB 장애) 모든 변경을 다시 버퍼 앞쪽에 합쳐서 다음 flush 에서 재시도, 시도 횟수는 세지 않음
+            - 접속할 수 있으면 변경마다 따로 기록 --> 실패 원인인 변경만 남기고, 그 변경의 시도 횟수 + 1
+            - maxAttempts 번 실패한 변경은 버리고 dead-letter 로그 + querydsl.write-behind.dead-letters 메트릭
+              (실패하는 변경 하나가 버퍼를 계속 차지해서 호출한 쪽이 모두 backpressure 에 걸리지 않도록)
+          (새 회원은 롤백된 persist 에서 받은 id, version 을 비워서 다시 persist --> 새 id 할당)
+          다시 넣은 변경도 capacity 에 포함되기 때문에 DB 장애가 길어지면 호출한 쪽이 대기 후 거절됨 (backpressure)
+*/
+@Slf4j
+public class MemberWriteBehindBuffer implements DisposableBean, MeterBinder {
+
+    /* version 이 null 인 회원도 있기 때문에 (MemberArchiver 와 같이) null 은 0 으로 보고 증가 */
+    private static final String SET_AGE = "update member set age = ?, version = coalesce(version, 0) + 1 where member_id = ?";
+    private static final String ADD_AGE = "update member set age = age + ?, version = coalesce(version, 0) + 1 where member_id = ?";
+    private static final String PING = "select 1";
+
+    private static final String MEMBER = Member.class.getSimpleName();
+    private static final Set<String> AGE_CHANGED = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("age", "version")));
+
+    private final WriteBehindProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeed changeFeed;
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "member-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private Map<Long, AgeChange> ageChanges = new LinkedHashMap<>();
+    private List<Member> newMembers = new ArrayList<>();
+    /* 따로 기록하다 실패한 새 회원의 시도 횟수 (나이 변경은 AgeChange 에) */
+    private final Map<Member, Integer> memberAttempts = new IdentityHashMap<>();
+    private boolean flushRequested;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong writtenChanges = new AtomicLong();
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    public MemberWriteBehindBuffer(WriteBehindProperties properties, JdbcTemplate jdbcTemplate, ChangeFeed changeFeed, EntityManager em,
+                                   PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeFeed = changeFeed;
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        final long interval = properties.getFlushInterval().toMillis();
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void save(Member member) {
+        offer(() -> newMembers.add(member));
+    }
+
+    public void updateAge(Long memberId, int age) {
+        offer(() -> ageChanges.merge(memberId, AgeChange.set(age), AgeChange::then));
+    }
+
+    public void increaseAge(Long memberId, int delta) {
+        offer(() -> ageChanges.merge(memberId, AgeChange.delta(delta), AgeChange::then));
+    }
+
+    /* 지금까지 쌓인 변경을 바로 기록 (flusher 스레드와 동시에 실행되지 않도록 flusher 에서 실행) */
+    public void flush() {
+        try {
+            flusher.submit(this::flushPending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while flushing write-behind buffer", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("write-behind flush failed", e.getCause());
+        }
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pendingCount();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCommits() {
+        return commits.get();
+    }
+
+    public long getWrittenChanges() {
+        return writtenChanges.get();
+    }
+
+    public long getDeadLetters() {
+        return deadLetters.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("querydsl.write-behind.dead-letters", this, MemberWriteBehindBuffer::getDeadLetters).register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.getFlushInterval().toMillis() * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushPending();
+        log.info(" --> Write-behind drained : {} commits, {} changes written", commits.get(), writtenChanges.get());
+    }
+
+    private void offer(Runnable change) {
+        lock.lock();
+        try {
+            long remaining = properties.getOfferTimeout().toNanos();
+            while (pendingCount() >= properties.getCapacity()) {
+                requestFlush();
+                if (remaining <= 0L) {
+                    throw new WriteBehindRejectedException("write-behind buffer is full (" + properties.getCapacity() + ")");
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            change.run();
+            if (pendingCount() >= properties.getFlushSize()) {
+                requestFlush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteBehindRejectedException("interrupted while waiting for write-behind buffer");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* lock 을 잡은 상태에서 호출, flush 요청은 한번만 걸어둠 */
+    private void requestFlush() {
+        if (!flushRequested && !flusher.isShutdown()) {
+            flushRequested = true;
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushPending();
+        } catch (RuntimeException e) {
+            log.error(" --> Write-behind flush failed, changes are kept for the next flush", e);
+        }
+    }
+
+    private void flushPending() {
+        final Map<Long, AgeChange> ages;
+        final List<Member> members;
+        lock.lock();
+        try {
+            flushRequested = false;
+            if (pendingCount() == 0) {
+                return;
+            }
+            ages = ageChanges;
+            members = newMembers;
+            ageChanges = new LinkedHashMap<>();
+            newMembers = new ArrayList<>();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(ages, members));
+        } catch (RuntimeException e) {
+            resetIds(members);
+            if (!isDatabaseAvailable()) {
+                requeue(ages, members);
+                throw e;
+            }
+            writeEach(ages, members);
+            return;
+        }
+        commits.incrementAndGet();
+        writtenChanges.addAndGet(ages.size() + members.size());
+        forgetAttempts(members);
+    }
+
+    /* 한 트랜잭션으로 기록하지 못한 변경을 하나씩 따로 기록, 실패한 변경만 시도 횟수를 올려서 다시 넣음 */
+    private void writeEach(Map<Long, AgeChange> ages, List<Member> members) {
+        final Map<Long, AgeChange> failedAges = new LinkedHashMap<>();
+        final List<Member> failedMembers = new ArrayList<>();
+        RuntimeException failure = null;
+        for (Member member : members) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(Collections.emptyMap(), Collections.singletonList(member)));
+                written(1);
+                forgetAttempts(Collections.singletonList(member));
+            } catch (RuntimeException e) {
+                resetIds(Collections.singletonList(member));
+                failedMembers.add(member);
+                failure = e;
+            }
+        }
+        for (Map.Entry<Long, AgeChange> entry : ages.entrySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(Collections.singletonMap(entry.getKey(), entry.getValue()), Collections.emptyList()));
+                written(1);
+            } catch (RuntimeException e) {
+                failedAges.put(entry.getKey(), entry.getValue().failed());
+                failure = e;
+            }
+        }
+        if (failure == null) {
+            return;
+        }
+        requeue(deadLetterAges(failedAges, failure), deadLetterMembers(failedMembers, failure));
+        throw failure;
+    }
+
+    private Map<Long, AgeChange> deadLetterAges(Map<Long, AgeChange> failedAges, RuntimeException failure) {
+        final Map<Long, AgeChange> retry = new LinkedHashMap<>();
+        failedAges.forEach((memberId, change) -> {
+            if (change.getAttempts() >= properties.getMaxAttempts()) {
+                deadLetters.incrementAndGet();
+                log.error(" --> Write-behind dead letter : age change of member {} (absolute={}, value={}) failed {} times",
+                          memberId, change.isAbsolute(), change.getValue(), change.getAttempts(), failure);
+            } else {
+                retry.put(memberId, change);
+            }
+        });
+        return retry;
+    }
+
+    private List<Member> deadLetterMembers(List<Member> failedMembers, RuntimeException failure) {
+        final List<Member> retry = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Member member : failedMembers) {
+                final int attempts = memberAttempts.merge(member, 1, Integer::sum);
+                if (attempts >= properties.getMaxAttempts()) {
+                    memberAttempts.remove(member);
+                    deadLetters.incrementAndGet();
+                    log.error(" --> Write-behind dead letter : new member (username={}, age={}) failed {} times",
+                              member.getUsername(), member.getAge(), attempts, failure);
+                } else {
+                    retry.add(member);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return retry;
+    }
+
+    private void forgetAttempts(List<Member> members) {
+        lock.lock();
+        try {
+            if (!memberAttempts.isEmpty()) {
+                members.forEach(memberAttempts::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void written(int changes) {
+        commits.incrementAndGet();
+        writtenChanges.addAndGet(changes);
+    }
+
+    private boolean isDatabaseAvailable() {
+        try {
+            jdbcTemplate.queryForObject(PING, Integer.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    /* 롤백된 persist 에서 받은 id, version 을 비워서 다시 persist 할 수 있도록 */
+    private void resetIds(List<Member> members) {
+        for (Member member : members) {
+            member.setId(null);
+            member.setVersion(null);
+        }
+    }
+
+    private void write(Map<Long, AgeChange> ages, List<Member> members) {
+        for (Member member : members) {
+            em.persist(member);
+        }
+        em.flush();
+
+        final List<Object[]> setAges = ages.entrySet().stream()
+                                           .filter(entry -> entry.getValue().isAbsolute())
+                                           .map(entry -> new Object[]{entry.getValue().getValue(), entry.getKey()})
+                                           .collect(Collectors.toList());
+        final List<Object[]> addAges = ages.entrySet().stream()
+                                           .filter(entry -> !entry.getValue().isAbsolute())
+                                           .map(entry -> new Object[]{entry.getValue().getValue(), entry.getKey()})
+                                           .collect(Collectors.toList());
+        if (!setAges.isEmpty()) {
+            jdbcTemplate.batchUpdate(SET_AGE, setAges);
+        }
+        if (!addAges.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_AGE, addAges);
+        }
+        /* JDBC 로 직접 update 한 변경은 엔티티 리스너를 거치지 않기 때문에 직접 발행 (새 회원은 persist 라서 리스너가 발행) */
+        changeFeed.publish(MEMBER, ChangeType.UPDATE, new ArrayList<>(ages.keySet()), AGE_CHANGED);
+    }
+
+    /* 실패한 변경을 그 사이에 들어온 변경보다 앞에 적용되도록 다시 합침 */
+    private void requeue(Map<Long, AgeChange> ages, List<Member> members) {
+        lock.lock();
+        try {
+            final Map<Long, AgeChange> merged = new LinkedHashMap<>(ages);
+            ageChanges.forEach((memberId, later) -> merged.merge(memberId, later, AgeChange::then));
+            ageChanges = merged;
+
+            final List<Member> requeued = new ArrayList<>(members);
+            requeued.addAll(newMembers);
+            newMembers = requeued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pendingCount() {
+        return ageChanges.size() + newMembers.size();
+    }
+
+}
@@ -0,0 +1,29 @@
+package syudy.querydsl.writebehind;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled;
+
+    /* 메모리에 쌓아둘 수 있는 최대 건수 (회원 id 기준으로 합쳐진 건수), 가득 차면 호출한 쪽이 대기 */
+    private int capacity = 10_000;
+
+    /* 이만큼 쌓이거나 flushInterval 이 지나면 한 트랜잭션으로 기록 --> 최대 지연 시간 = flushInterval */
+    private int flushSize = 1_000;
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /* 버퍼가 가득 찼을 때 자리가 날 때까지 기다리는 최대 시간 */
+    private Duration offerTimeout = Duration.ofSeconds(1);
+
+    /* 변경 하나를 따로 기록해도 이만큼 실패하면 버리고 dead-letter 로그 (DB 에 접속할 수 없어서 실패한 경우는 세지 않음) */
+    private int maxAttempts = 3;
+
+}
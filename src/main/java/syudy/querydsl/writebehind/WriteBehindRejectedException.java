@@ -0,0 +1,9 @@
+package syudy.querydsl.writebehind;
+
+public class WriteBehindRejectedException extends RuntimeException {
+
+    public WriteBehindRejectedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,47 @@
+-- faststart 프로파일에서 사용하는 스키마 (엔티티 변경 시 함께 수정, ddl-auto: validate 로 검증)
+create sequence if not exists hibernate_sequence start with 1 increment by 1;
+
+create table if not exists hello (
+    id bigint not null,
+    primary key (id)
+);
+
+create table if not exists team (
+    team_id bigint not null,
+    version bigint,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table if not exists member (
+    member_id bigint not null,
+    version bigint,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    primary key (member_id),
+    constraint fk_member_team foreign key (team_id) references team (team_id)
+);
+
+-- MemberArchiver 가 옮긴 회원 (team 이 삭제돼도 남도록 FK 없음)
+create table if not exists member_archive (
+    member_id bigint not null,
+    version bigint,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    archived_at timestamp,
+    primary key (member_id)
+);
+
+-- MemberTeamViewMaintainer 가 member + team 으로 만드는 조회 테이블 (언제든 재생성 가능, FK 없음)
+create table if not exists member_team_view (
+    member_id bigint not null,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    team_name varchar(255),
+    primary key (member_id)
+);
+create index if not exists idx_member_team_view_team_name on member_team_view (team_name);
+create index if not exists idx_member_team_view_age on member_team_view (age);
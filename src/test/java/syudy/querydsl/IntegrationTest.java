@@ -0,0 +1,24 @@
+package syudy.querydsl;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+    모든 통합 테스트가 공유하는 설정
+
+        - 테스트 클래스마다 설정(properties, @MockBean 등)이 조금이라도 다르면 스프링 컨텍스트를 새로 띄운다
+        - 같은 어노테이션을 사용해서 컨텍스트 캐시 key 를 하나로 맞춤 --> 전체 테스트에서 컨텍스트 한번만 기동
+*/
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(properties = {
+        "spring.data.jpa.repositories.bootstrap-mode=deferred",
+        "spring.jmx.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=syudy.querydsl.plan.SqlCaptureInspector"
+})
+public @interface IntegrationTest {
+}
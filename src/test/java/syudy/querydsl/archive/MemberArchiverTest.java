@@ -0,0 +1,85 @@
+package syudy.querydsl.archive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.repository.MemberRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* 이동은 chunk 마다 새 트랜잭션에서 커밋되기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class MemberArchiverTest {
+
+    /* 다른 테스트 데이터와 겹치지 않는 나이 */
+    private static final int ARCHIVED_AGE = 900;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MemberArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        final ArchiveProperties properties = new ArchiveProperties();
+        properties.setChunkSize(2);
+        properties.getPolicy().setAgeGoe(ARCHIVED_AGE);
+        archiver = new MemberArchiver(properties, jdbcTemplate, changeFeed, transactionManager);
+
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("ARCHIVE" + i, ARCHIVED_AGE + i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiver.destroy();
+        jdbcTemplate.update("delete from member where age >= ?", ARCHIVED_AGE);
+        jdbcTemplate.update("delete from member_archive where age >= ?", ARCHIVED_AGE);
+    }
+
+    @Test
+    @DisplayName("조건에 맞는 회원을 chunk 단위로 옮기고, includeArchived 일 때만 검색에 포함")
+    void test_archive_01() {
+        assertEquals(5, archiver.run());
+
+        final MemberSearchCondition hot = MemberSearchCondition.builder()
+                                                               .ageGoe(ARCHIVED_AGE)
+                                                               .build();
+        final MemberSearchCondition all = MemberSearchCondition.builder()
+                                                               .ageGoe(ARCHIVED_AGE)
+                                                               .includeArchived(true)
+                                                               .build();
+        assertEquals(0, memberRepository.search(hot).size());
+        assertEquals(5, memberRepository.search(all).size());
+        assertEquals(0, archiver.run());
+    }
+
+    @Test
+    @DisplayName("version 이 null 인 회원도 옮김 (같은 회원을 chunk 마다 다시 조회하지 않음)")
+    void test_archive_02() {
+        jdbcTemplate.update("update member set version = null where age >= ?", ARCHIVED_AGE);
+
+        assertEquals(5, archiver.run());
+        assertEquals(5, jdbcTemplate.queryForObject("select count(*) from member_archive where age >= ?", Integer.class, ARCHIVED_AGE));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from member where age >= ?", Integer.class, ARCHIVED_AGE));
+    }
+
+}
@@ -0,0 +1,170 @@
+package syudy.querydsl.bench;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.virtual.VirtualThreads;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+    요청 스레드 풀 (Tomcat 기본 200) 과 가상 스레드에서 동시 검색 처리량, 동시 실행 요청 수, heap 비교
+
+        - 요청 하나 = search + 외부 호출을 흉내낸 블로킹 대기 (benchmark.io-millis)
+        - DB 작업은 두 방식 모두 limiter 가 커넥션 풀 크기로 제한 (virtual 프로파일과 같은 설정)
+        - 가상 스레드는 JDK 21 이상에서만 실행 (그 외에는 건너뜀)
+
+    ./gradlew test --tests '*SearchConcurrencyBenchmark' -Dbenchmark=true -PvirtualJavaHome=<JDK 21 경로>
+*/
+@Slf4j
+@IntegrationTest
+@TestPropertySource(properties = {
+        "querydsl.limiter.max-queue-size=100000",
+        "querydsl.limiter.max-wait=30s",
+        "querydsl.fair-scheduler.default-quota=10", // 한 팀으로만 측정하기 때문에 팀 quota 로 제한하지 않음
+        "querydsl.fair-scheduler.max-queue-size-per-tenant=100000",
+        "querydsl.fair-scheduler.max-wait=30s"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SearchConcurrencyBenchmark {
+
+    private static final String TEAM_NAME = "BENCH";
+    private static final int PLATFORM_THREADS = 200;
+
+    private final int requests = Integer.getInteger("benchmark.requests", 10_000);
+    private final int ioMillis = Integer.getInteger("benchmark.io-millis", 20);
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            final Team team = new Team(TEAM_NAME);
+            em.persist(team);
+            for (int i = 0; i < 100; i++) {
+                em.persist(new Member("bench" + i, i, team));
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from member where team_id in (select team_id from team where name = ?)", TEAM_NAME);
+        jdbcTemplate.update("delete from team where name = ?", TEAM_NAME);
+    }
+
+    @Test
+    void benchmark() throws Exception {
+        run("platform-" + PLATFORM_THREADS, Executors.newFixedThreadPool(PLATFORM_THREADS));
+        if (VirtualThreads.isAvailable()) {
+            run("virtual", VirtualThreads.newPerTaskExecutor("bench-virtual-"));
+        } else {
+            log.info("virtual threads are not available on {}, skipped", System.getProperty("java.version"));
+        }
+    }
+
+    private void run(String name, ExecutorService executor) throws Exception {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName(TEAM_NAME)
+                                                                     .ageLoe(10)
+                                                                     .build();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peakRunning = new AtomicInteger();
+        final long heapBefore = usedHeapAfterGc();
+        resetPeakHeap();
+        threads.resetPeakThreadCount();
+        final long start = System.nanoTime();
+
+        final List<Future<Integer>> results = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            results.add(executor.submit(() -> {
+                peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    final int size = memberRepository.search(condition).size();
+                    Thread.sleep(ioMillis);
+                    return size;
+                } finally {
+                    running.decrementAndGet();
+                }
+            }));
+        }
+        for (Future<Integer> result : results) {
+            assertEquals(11, (int) result.get());
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final long peakHeap = peakHeap();
+        /* 결과 Future 를 붙잡고 있는 상태에서 GC 후 측정 --> 요청 처리 중 만들어진 garbage 는 제외하고 남아 있는 heap 만 */
+        final long heapAfter = usedHeapAfterGc();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        /*
+            ThreadMXBean 은 platform 스레드만 센다 (가상 스레드는 carrier 스레드만 보임)
+            --> 동시에 실행 중이던 요청 수를 직접 세서 스레드 수 대신 비교
+        */
+        log.info("[{}] {} requests in {}ms, {} req/s, peak concurrent requests {}, peak platform threads {}, peak heap {}KB, retained heap delta {}KB",
+                 name, requests, TimeUnit.NANOSECONDS.toMillis(elapsed), requests * 1_000_000_000L / elapsed,
+                 peakRunning.get(), threads.getPeakThreadCount(), peakHeap / 1024, (heapAfter - heapBefore) / 1024);
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private void resetPeakHeap() {
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /* 실행 중 heap pool 별 최대 사용량의 합 (garbage 포함) */
+    private long peakHeap() {
+        return heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans()
+                                .stream()
+                                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                                .collect(Collectors.toList());
+    }
+
+}
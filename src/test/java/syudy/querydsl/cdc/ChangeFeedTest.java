@@ -0,0 +1,115 @@
+package syudy.querydsl.cdc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* 이벤트는 커밋 이후에 발행되기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class ChangeFeedTest {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long memberId;
+
+    @AfterEach
+    void tearDown() {
+        if (memberId != null) {
+            memberRepository.deleteById(memberId);
+        }
+        jdbcTemplate.update("delete from member where team_id in (select team_id from team where name like 'FEED-%')");
+        jdbcTemplate.update("delete from team where name like 'FEED-%'");
+    }
+
+    @Test
+    @DisplayName("엔티티 저장과 bulk update 모두 순서대로 발행")
+    void test_publish_01() {
+        final ChangeSubscription subscription = changeFeed.subscribe();
+
+        memberId = memberRepository.save(new Member("DOBY", 30)).getId();
+        memberRepository.increaseAge(memberId, 1);
+
+        final List<ChangeEvent> events = subscription.poll(10);
+        assertEquals(2, events.size());
+        assertEquals(ChangeType.INSERT, events.get(0).getType());
+        assertEquals(ChangeType.UPDATE, events.get(1).getType());
+        assertEquals(Collections.singletonList(memberId), events.get(1).getIds());
+        assertTrue(events.get(1).getChangedFields().contains("age"));
+        assertTrue(events.get(0).getSequence() < events.get(1).getSequence());
+    }
+
+    @Test
+    @DisplayName("팀 이동 bulk update 는 이동한 회원 id 를 이벤트 하나로 발행")
+    void test_publish_02() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        final List<Long> teamIds = transactionTemplate.execute(status -> {
+            final Team from = new Team("FEED-A");
+            final Team to = new Team("FEED-B");
+            em.persist(from);
+            em.persist(to);
+            for (int i = 0; i < 3; i++) {
+                em.persist(new Member("FEED" + i, 20, from));
+            }
+            return Arrays.asList(from.getId(), to.getId());
+        });
+        final ChangeSubscription subscription = changeFeed.subscribe();
+
+        final long count = memberRepository.moveMembers(teamIds.get(0), teamIds.get(1));
+
+        final List<ChangeEvent> events = subscription.poll(10);
+        assertEquals(3L, count);
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getIds().size());
+        assertTrue(events.get(0).getChangedFields().contains("team"));
+    }
+
+    @Test
+    @DisplayName("구독자가 ring buffer 크기보다 뒤처지면 overrun")
+    void test_overrun_01() {
+        final ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setCapacity(4);
+        final ChangeFeed feed = new ChangeFeed(properties);
+        final ChangeSubscription subscription = feed.subscribe();
+
+        for (long id = 1; id <= 5; id++) {
+            feed.publish("Member", ChangeType.UPDATE, id, Collections.singleton("age"));
+        }
+
+        assertTrue(subscription.poll(10).isEmpty());
+        assertTrue(subscription.checkAndClearOverrun());
+        feed.publish("Member", ChangeType.DELETE, 6L, Collections.emptySet());
+        assertEquals(1, subscription.poll(10).size());
+        assertFalse(subscription.checkAndClearOverrun());
+    }
+
+}
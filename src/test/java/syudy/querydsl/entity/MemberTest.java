@@ -13,13 +13,14 @@ import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Commit;
 import org.springframework.transaction.annotation.Transactional;
+import syudy.querydsl.IntegrationTest;
 import syudy.querydsl.dto.MemberDto;
 import syudy.querydsl.dto.QMemberDto;
 import syudy.querydsl.dto.UserDto;
@@ -31,7 +32,7 @@ import java.util.List;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@IntegrationTest
 @Transactional
 @Slf4j
 class MemberTest {
@@ -703,4 +704,21 @@ class MemberTest {
                             .from(member).where(member.username.eq("DOBY")).fetchFirst();
         assertEquals("DOBY", dobyName);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("지연로딩 프록시 팀으로 변경해도 Team.members 를 로딩하지 않음")
+    void test_changeTeam_01() {
+        final QMember member = QMember.member;
+        final QTeam team = QTeam.team;
+        final Long teamAId = query.select(team.id).from(team).where(team.name.eq("Team-A")).fetchFirst();
+        final Member lime = query.selectFrom(member).where(member.username.eq("LIME")).fetchFirst();
+
+        final Team teamA = em.getReference(Team.class, teamAId);
+        lime.changeTeam(teamA);
+        em.flush();
+
+        assertFalse(Hibernate.isInitialized(teamA));
+        assertFalse(Hibernate.isInitialized(lime.getTeam()));
+    }
+
+}
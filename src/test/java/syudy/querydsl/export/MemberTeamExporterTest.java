@@ -0,0 +1,163 @@
+package syudy.querydsl.export;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* 파티션마다 별도 스레드/트랜잭션에서 읽기 때문에 @Transactional 없이 커밋된 데이터로 검증 */
+@IntegrationTest
+class MemberTeamExporterTest {
+
+    @Autowired
+    private MemberTeamExporter exporter;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                         .teamName("Export-Team")
+                                                                         .build();
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            final Team team = new Team("Export-Team");
+            em.persist(team);
+            em.persist(new Member("DOBY", 31, team));
+            em.persist(new Member("RED, JR", 33, team));
+            em.persist(new Member("LIME", 28, team));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.team.id in (select t.id from Team t where t.name = 'Export-Team')").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'Export-Team'").executeUpdate();
+        });
+    }
+
+    @Test
+    void test_export_csv(@TempDir Path directory) throws IOException {
+        final ExportResult result = exporter.export(condition, directory, ExportFormat.CSV, 4);
+
+        final List<String> lines = result.getFiles()
+                                         .stream()
+                                         .flatMap(file -> readLines(file).stream().skip(1))
+                                         .collect(Collectors.toList());
+        assertEquals(3, result.getRowCount());
+        assertEquals(3, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"RED, JR\",33")));
+    }
+
+    @Test
+    void test_export_columnar(@TempDir Path directory) throws IOException {
+        final ExportResult result = exporter.export(condition, directory, ExportFormat.COLUMNAR, 2);
+
+        final List<MemberTeamDto> rows = new ArrayList<>();
+        for (Path file : result.getFiles()) {
+            rows.addAll(readColumnar(file));
+        }
+        rows.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+
+        assertEquals(3, result.getRowCount());
+        assertEquals(3, rows.size());
+        assertEquals("DOBY", rows.get(0).getUserName());
+        assertEquals(31, rows.get(0).getAge());
+        assertEquals("RED, JR", rows.get(1).getUserName());
+        assertEquals(33, rows.get(1).getAge());
+        assertEquals("LIME", rows.get(2).getUserName());
+        assertEquals(28, rows.get(2).getAge());
+        assertTrue(rows.stream().allMatch(row -> "Export-Team".equals(row.getTeamName()) && row.getTeamId() != null));
+    }
+
+    @Test
+    void test_export_partitions(@TempDir Path directory) {
+        assertThrows(IllegalArgumentException.class, () -> exporter.export(condition, directory, ExportFormat.CSV, 0));
+    }
+
+    /* ColumnarRowWriter 포맷 그대로 다시 읽음 */
+    private List<MemberTeamDto> readColumnar(Path file) throws IOException {
+        final List<MemberTeamDto> rows = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            assertEquals(ColumnarRowWriter.MAGIC, in.readInt());
+            assertEquals(ColumnarRowWriter.VERSION, in.readInt());
+            int rowCount;
+            while ((rowCount = in.readInt()) > 0) {
+                final long[] memberIds = new long[rowCount];
+                final int[] ages = new int[rowCount];
+                final long[] teamIds = new long[rowCount];
+                final String[] userNames = new String[rowCount];
+                for (int i = 0; i < rowCount; i++) {
+                    memberIds[i] = in.readLong();
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    ages[i] = in.readInt();
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    teamIds[i] = in.readLong();
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    userNames[i] = readString(in);
+                }
+                final String[] dictionary = new String[in.readInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = readString(in);
+                }
+                for (int i = 0; i < rowCount; i++) {
+                    final int teamName = in.readInt();
+                    rows.add(new MemberTeamDto(memberIds[i] == -1L ? null : memberIds[i], userNames[i], ages[i],
+                                               teamIds[i] == -1L ? null : teamIds[i], teamName == -1 ? null : dictionary[teamName]));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<String> readLines(Path file) {
+        try {
+            return Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
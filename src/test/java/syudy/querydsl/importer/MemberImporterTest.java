@@ -0,0 +1,82 @@
+package syudy.querydsl.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.cdc.ChangeEvent;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.cdc.ChangeSubscription;
+import syudy.querydsl.cdc.ChangeType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/* writer 스레드가 각자 커밋하기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class MemberImporterTest {
+
+    @Autowired
+    private MemberImporter importer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from member where team_id in (select team_id from team where name like 'Import-Team-%')");
+        jdbcTemplate.update("delete from team where name like 'Import-Team-%'");
+    }
+
+    @Test
+    void test_importFile(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("members.csv");
+        Files.write(file, Arrays.asList(
+                "userName,age,teamName",
+                "DOBY,31,Import-Team-A",
+                "\"RED, JR\",33,Import-Team-A",
+                "LIME,28,Import-Team-B",
+                ",30,Import-Team-B",
+                "NORI,thirty,Import-Team-B"
+        ), StandardCharsets.UTF_8);
+
+        final ChangeSubscription subscription = changeFeed.subscribe();
+        final ImportResult result = importer.importFile(file, 2);
+        final Integer teamACount = jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on m.team_id = t.team_id where t.name = 'Import-Team-A'", Integer.class);
+
+        assertEquals(3, result.getImportedRows());
+        assertEquals(2, result.getCreatedTeams());
+        assertEquals(2, result.getErrorCount());
+        assertEquals(5L, result.getErrors().get(0).getLineNumber());
+        assertEquals(6L, result.getErrors().get(1).getLineNumber());
+        assertEquals(2, teamACount);
+
+        /* 엔티티 리스너를 거치지 않은 insert 도 ChangeFeed 에 발행 */
+        final List<ChangeEvent> events = subscription.poll(100);
+        assertEquals(3, events.stream()
+                              .filter(event -> "Member".equals(event.getEntity()) && event.getType() == ChangeType.INSERT)
+                              .mapToInt(event -> event.getIds().size())
+                              .sum());
+        assertEquals(2L, events.stream().filter(event -> "Team".equals(event.getEntity()) && event.getType() == ChangeType.INSERT).count());
+    }
+
+    @Test
+    void test_importLines_writers() {
+        assertThrows(IllegalArgumentException.class, () -> importer.importLines(Collections.singletonList("DOBY,31,Import-Team-A").iterator(), 0));
+    }
+
+}
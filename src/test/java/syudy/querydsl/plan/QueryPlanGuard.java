@@ -0,0 +1,157 @@
+package syudy.querydsl.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/*
+    쿼리 실행 계획 회귀 검사
+
+        1. 호출 중에 실행된 SQL 을 SqlCaptureInspector 로 수집
+        2. SQL 마다 H2 EXPLAIN 을 실행해서 테이블별 접근 방식(scan / 인덱스) 추출
+        3. query-plan-baseline.properties 와 비교
+            - SQL 개수가 늘어나면 실패 (N+1 등)
+            - baseline 에서 인덱스를 쓰던 테이블이 scan 으로 바뀌면 실패
+            - 더 좋아진 경우(개수 감소, scan -> 인덱스)는 통과, baseline 갱신 안내만 로그
+
+    baseline 갱신 : ./gradlew test -Dquery-plan.update=true
+*/
+@Slf4j
+class QueryPlanGuard {
+
+    static final String BASELINE_RESOURCE = "/query-plan-baseline.properties";
+    static final Path BASELINE_SOURCE = Paths.get("src/test/resources/query-plan-baseline.properties");
+
+    /* "PUBLIC"."MEMBER" "MEMBER0_" /* PUBLIC.MEMBER.tableScan */ , /* PUBLIC.PRIMARY_KEY_8: MEMBER_ID = ?1 */
+    private static final Pattern ACCESS = Pattern.compile(
+            "\"?PUBLIC\"?\\.\"?(\\w+)\"?\\s+\"?\\w+\"?\\s*/\\*\\s*PUBLIC\\.(\\w+)(\\.tableScan)?");
+    private static final Pattern NUMBER_SUFFIX = Pattern.compile("_\\d+$");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Properties baseline = new Properties();
+    private final boolean update = Boolean.getBoolean("query-plan.update");
+
+    QueryPlanGuard(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        try (InputStream in = QueryPlanGuard.class.getResourceAsStream(BASELINE_RESOURCE)) {
+            if (in != null) {
+                baseline.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    List<StatementPlan> capture(Runnable call) {
+        SqlCaptureInspector.start();
+        final List<String> statements;
+        try {
+            call.run();
+        } finally {
+            statements = SqlCaptureInspector.stop();
+        }
+
+        final List<StatementPlan> plans = new ArrayList<>();
+        for (String sql : statements) {
+            final String explain = explain(sql);
+            plans.add(new StatementPlan(sql, explain, accessPaths(explain)));
+        }
+        return plans;
+    }
+
+    void verify(String name, Runnable call) {
+        final List<StatementPlan> plans = capture(call);
+        if (update) {
+            record(name, plans);
+            return;
+        }
+
+        final String expectedCount = baseline.getProperty(name + ".statements");
+        assertNotNull(expectedCount, "no query plan baseline for '" + name + "', run with -Dquery-plan.update=true" + StatementPlan.describe(plans));
+        if (plans.size() > Integer.parseInt(expectedCount)) {
+            fail(String.format("'%s' executes %d statements, baseline %s%s", name, plans.size(), expectedCount, StatementPlan.describe(plans)));
+        }
+
+        for (int i = 0; i < plans.size(); i++) {
+            final Map<String, String> expected = parse(baseline.getProperty(name + "." + i, ""));
+            final Map<String, String> actual = plans.get(i).getAccessPaths();
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                final String access = actual.getOrDefault(entry.getKey(), StatementPlan.SCAN);
+                if (!StatementPlan.SCAN.equals(entry.getValue()) && StatementPlan.SCAN.equals(access)) {
+                    fail(String.format("'%s' statement %d lost index %s on %s%s", name, i, entry.getValue(), entry.getKey(), StatementPlan.describe(plans)));
+                }
+            }
+            if (!expected.equals(actual)) {
+                log.info(" --> Query plan '{}' [{}] changed : {} -> {} (update baseline if intended)", name, i, expected, actual);
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        final int parameters = sql.length() - sql.replace("?", "").length();
+        return jdbcTemplate.query("explain " + sql,
+                                  ps -> {
+                                      for (int i = 1; i <= parameters; i++) {
+                                          ps.setObject(i, null);
+                                      }
+                                  },
+                                  rs -> {
+                                      final StringBuilder plan = new StringBuilder();
+                                      while (rs.next()) {
+                                          plan.append(rs.getString(1));
+                                      }
+                                      return plan.toString();
+                                  });
+    }
+
+    private Map<String, String> accessPaths(String explain) {
+        final Map<String, String> accessPaths = new LinkedHashMap<>();
+        final Matcher matcher = ACCESS.matcher(explain);
+        while (matcher.find()) {
+            final String access = matcher.group(3) != null ? StatementPlan.SCAN : NUMBER_SUFFIX.matcher(matcher.group(2)).replaceAll("");
+            accessPaths.put(matcher.group(1), access);
+        }
+        return accessPaths;
+    }
+
+    private Map<String, String> parse(String summary) {
+        final Map<String, String> accessPaths = new LinkedHashMap<>();
+        for (String entry : summary.split(",")) {
+            final int separator = entry.indexOf(':');
+            if (separator > 0) {
+                accessPaths.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+            }
+        }
+        return accessPaths;
+    }
+
+    private void record(String name, List<StatementPlan> plans) {
+        baseline.setProperty(name + ".statements", String.valueOf(plans.size()));
+        for (int i = 0; i < plans.size(); i++) {
+            baseline.setProperty(name + "." + i, plans.get(i).summary());
+        }
+        try (OutputStream out = Files.newOutputStream(BASELINE_SOURCE)) {
+            baseline.store(out, "query plan baseline (QueryPlanGuard), table:scan or table:index");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        log.info(" --> Query plan '{}' recorded : {} statements", name, plans.size());
+    }
+
+}
@@ -0,0 +1,109 @@
+package syudy.querydsl.plan;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+
+/* Repository 메서드, 조건 조합별로 실행 SQL 개수와 실행 계획을 baseline(query-plan-baseline.properties) 과 비교 */
+@IntegrationTest
+@Transactional
+class QueryPlanRegressionTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private QueryPlanGuard guard;
+
+    private Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        final Team teamA = new Team("Team-A");
+        em.persist(teamA);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("member" + i, 20 + i, teamA));
+        }
+        final Member doby = new Member("DOBY", 31, teamA);
+        em.persist(doby);
+        memberId = doby.getId();
+
+        em.flush();
+        em.clear();
+
+        guard = new QueryPlanGuard(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("PK 조회")
+    void test_findById() {
+        guard.verify("findById", () -> memberRepository.findById(memberId));
+    }
+
+    @Test
+    @DisplayName("이름 조회")
+    void test_findByUsername() {
+        guard.verify("findByUsername", () -> memberRepository.findByUsername("DOBY"));
+    }
+
+    @Test
+    @DisplayName("조건 없는 search")
+    void test_search_empty() {
+        guard.verify("search.empty", () -> memberRepository.search(new MemberSearchCondition()));
+    }
+
+    @Test
+    @DisplayName("팀 이름 search")
+    void test_search_teamName() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-A")
+                                                                     .build();
+        guard.verify("search.teamName", () -> memberRepository.search(condition));
+    }
+
+    @Test
+    @DisplayName("회원 이름 search")
+    void test_search_userName() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .userName("DOBY")
+                                                                     .build();
+        guard.verify("search.userName", () -> memberRepository.search(condition));
+    }
+
+    @Test
+    @DisplayName("나이 범위 search")
+    void test_search_ageRange() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .ageGoe(20)
+                                                                     .ageLoe(40)
+                                                                     .build();
+        guard.verify("search.ageRange", () -> memberRepository.search(condition));
+    }
+
+    @Test
+    @DisplayName("나이 범위 complexSearch (컨텐츠 + 카운트)")
+    void test_complexSearch_ageRange() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .ageGoe(20)
+                                                                     .ageLoe(40)
+                                                                     .build();
+        guard.verify("complexSearch.ageRange", () -> memberRepository.complexSearch(condition, PageRequest.of(0, 2)));
+    }
+
+}
@@ -0,0 +1,32 @@
+package syudy.querydsl.plan;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* Hibernate 가 실행하는 SQL 을 기록 (IntegrationTest 에서 hibernate.session_factory.statement_inspector 로 등록) */
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    public static void start() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    public static List<String> stop() {
+        final List<String> captured = CAPTURED.get();
+        CAPTURED.remove();
+        return captured;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        final List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+}
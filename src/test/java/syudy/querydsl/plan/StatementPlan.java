@@ -0,0 +1,40 @@
+package syudy.querydsl.plan;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+class StatementPlan {
+
+    private String sql;
+    private String explain;
+    /* table -> scan 또는 사용한 인덱스 이름 (숫자 suffix 제거) */
+    private Map<String, String> accessPaths;
+
+    static final String SCAN = "scan";
+
+    String summary() {
+        final StringBuilder summary = new StringBuilder();
+        accessPaths.forEach((table, access) -> {
+            if (summary.length() > 0) {
+                summary.append(',');
+            }
+            summary.append(table).append(':').append(access);
+        });
+        return summary.toString();
+    }
+
+    static String describe(List<StatementPlan> plans) {
+        final StringBuilder description = new StringBuilder();
+        for (int i = 0; i < plans.size(); i++) {
+            description.append("\n  [").append(i).append("] ").append(plans.get(i).getSql())
+                       .append("\n      ").append(plans.get(i).getExplain().replace("\n", " "));
+        }
+        return description.toString();
+    }
+
+}
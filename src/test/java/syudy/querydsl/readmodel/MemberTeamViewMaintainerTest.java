@@ -0,0 +1,147 @@
+package syudy.querydsl.readmodel;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.repository.MemberRepository;
+import syudy.querydsl.support.fair.FairSearchScheduler;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.timeout.QueryTimeoutPolicy;
+import syudy.querydsl.support.timeout.QueryTimeoutProperties;
+import syudy.querydsl.support.timeout.TooManyRowsException;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/* 갱신은 커밋된 변경의 ChangeFeed 이벤트로 동작하기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class MemberTeamViewMaintainerTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private JPAQueryFactory jpaQueryFactory;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private FairSearchScheduler scheduler;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private QueryTimeoutPolicy timeouts;
+
+    @Autowired
+    private QueryTimeoutProperties queryTimeoutProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MemberTeamViewMaintainer maintainer;
+    private TransactionTemplate transactionTemplate;
+    private Long teamId;
+    private Long otherTeamId;
+
+    @BeforeEach
+    void setUp() {
+        maintainer = new MemberTeamViewMaintainer(new ReadModelProperties(), jdbcTemplate, changeFeed, jpaQueryFactory,
+                                                  memberRepository, scheduler, limiter, timeouts, transactionManager);
+        maintainer.rebuild();
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        teamId = transactionTemplate.execute(status -> {
+            final Team team = new Team("VIEW-A");
+            em.persist(team);
+            em.persist(new Member("VIEW1", 10, team));
+            em.persist(new Member("VIEW2", 20, team));
+            return team.getId();
+        });
+        otherTeamId = transactionTemplate.execute(status -> {
+            final Team team = new Team("VIEW-C");
+            em.persist(team);
+            return team.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        maintainer.destroy();
+        jdbcTemplate.update("delete from member where team_id in (?, ?)", teamId, otherTeamId);
+        jdbcTemplate.update("delete from team where team_id in (?, ?)", teamId, otherTeamId);
+        jdbcTemplate.update("delete from member_team_view where team_id in (?, ?)", teamId, otherTeamId);
+    }
+
+    @Test
+    @DisplayName("회원 추가와 팀 이름 변경을 ChangeFeed 로 받아서 join 없이 조회")
+    void test_refresh_01() {
+        maintainer.refresh();
+        assertEquals(2, maintainer.search(teamName("VIEW-A")).size());
+
+        transactionTemplate.execute(status -> {
+            em.find(Team.class, teamId).setName("VIEW-B");
+            return null;
+        });
+        maintainer.refresh();
+
+        final List<MemberTeamDto> renamed = maintainer.search(teamName("VIEW-B"));
+        assertEquals(2, renamed.size());
+        assertEquals("VIEW-B", renamed.get(0).getTeamName());
+        assertEquals(0, maintainer.search(teamName("VIEW-A")).size());
+        assertEquals(0, maintainer.getFallbackSearches());
+    }
+
+    @Test
+    @DisplayName("bulk update 로 팀을 옮긴 회원도 ChangeFeed 로 반영")
+    void test_refresh_02() {
+        maintainer.refresh();
+        memberRepository.moveMembers(teamId, otherTeamId);
+        maintainer.refresh();
+
+        assertEquals(0, maintainer.search(teamName("VIEW-A")).size());
+        assertEquals(2, maintainer.search(teamName("VIEW-C")).size());
+    }
+
+    @Test
+    @DisplayName("view 조회에도 search 의 maxRows 적용")
+    void test_search_maxRows() {
+        maintainer.refresh();
+        final int maxRows = queryTimeoutProperties.getMaxRows();
+        queryTimeoutProperties.setMaxRows(1);
+        try {
+            assertThrows(TooManyRowsException.class, () -> maintainer.search(teamName("VIEW-A")));
+            assertEquals(1, maintainer.getViewSearches());
+        } finally {
+            queryTimeoutProperties.setMaxRows(maxRows);
+        }
+    }
+
+    private MemberSearchCondition teamName(String teamName) {
+        return MemberSearchCondition.builder().teamName(teamName).build();
+    }
+
+}
@@ -3,19 +3,21 @@ package syudy.querydsl.repository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import syudy.querydsl.IntegrationTest;
 import syudy.querydsl.dto.MemberSearchCondition;
 import syudy.querydsl.dto.MemberTeamDto;
 import syudy.querydsl.entity.Member;
 import syudy.querydsl.entity.Team;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
-@SpringBootTest
+@IntegrationTest
 @Transactional
 class MemberJpaRepositoryTest {
 
@@ -138,4 +140,24 @@ class MemberJpaRepositoryTest {
         assertEquals("DOBY", dto.get(0).getUserName());
     }
 
-}
\ No newline at end of file
+    @Test
+    void test_findAllByIds() {
+        final Member member1 = new Member("NORI", 30);
+        final Member member2 = new Member("RED", 33);
+        final Member member3 = new Member("LIME", 28);
+        memberJpaRepository.save(member1);
+        memberJpaRepository.save(member2);
+        memberJpaRepository.save(member3);
+        em.flush();
+        em.clear();
+
+        final Member managed = memberJpaRepository.findById(member2.getId()).get();
+        final List<Member> members = memberJpaRepository.findAllByIds(Arrays.asList(member3.getId(), -1L, null, member1.getId(), member2.getId()));
+
+        assertEquals(3, members.size());
+        assertEquals("LIME", members.get(0).getUsername());
+        assertEquals("NORI", members.get(1).getUsername());
+        assertSame(managed, members.get(2));
+    }
+
+}
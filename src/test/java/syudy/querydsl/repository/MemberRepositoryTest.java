@@ -3,21 +3,36 @@ package syudy.querydsl.repository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import syudy.querydsl.IntegrationTest;
 import syudy.querydsl.dto.MemberSearchCondition;
 import syudy.querydsl.dto.MemberTeamDto;
 import syudy.querydsl.entity.Member;
 import syudy.querydsl.entity.Team;
+import syudy.querydsl.stats.MemberQueryPlanner;
+import syudy.querydsl.stats.StatisticsProperties;
+import syudy.querydsl.support.timeout.QueryDeadline;
+import syudy.querydsl.support.timeout.QueryDeadlineExceededException;
+import syudy.querydsl.support.timeout.QueryTimeoutProperties;
+import syudy.querydsl.support.timeout.TooManyRowsException;
 
 import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+@IntegrationTest
 @Transactional
 class MemberRepositoryTest {
 
@@ -27,10 +42,22 @@ class MemberRepositoryTest {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private MemberQueryPlanner planner;
+
+    @Autowired
+    private StatisticsProperties statisticsProperties;
+
+    @Autowired
+    private QueryTimeoutProperties queryTimeoutProperties;
+
+    private Team teamA;
+    private Team teamB;
+
     @BeforeEach
     void setUp() {
-        final Team teamA = new Team("Team-A");
-        final Team teamB = new Team("Team-B");
+        teamA = new Team("Team-A");
+        teamB = new Team("Team-B");
         em.persist(teamA);
         em.persist(teamB);
 
@@ -102,4 +129,205 @@ class MemberRepositoryTest {
 
         assertEquals(1, contents.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_increaseAge() {
+        final Member member = memberRepository.findByUsername("DOBY").get(0);
+        final Team team = em.find(Team.class, teamB.getId());
+
+        memberRepository.increaseAge(member.getId(), 1);
+
+        /* 바뀐 회원만 다시 읽고, 다른 엔티티는 detach 되지 않음 */
+        assertTrue(em.contains(member));
+        assertTrue(em.contains(team));
+        assertEquals(32, member.getAge());
+        assertEquals(1L, member.getVersion());
+    }
+
+    @Test
+    void test_complexSearch_estimatedCount() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .ageGoe(20)
+                                                                     .ageLoe(40)
+                                                                     .build();
+        final long minRows = statisticsProperties.getMinRows();
+        final long exactCountThreshold = statisticsProperties.getExactCountThreshold();
+        statisticsProperties.setMinRows(1);
+        statisticsProperties.setExactCountThreshold(3);
+        try {
+            planner.collect();
+            final OptionalLong estimated = planner.estimatedCount(condition);
+            /* 통계 수집 이후에 추가된 회원은 추정값에 없음 --> 전체 개수가 count 쿼리가 아니라 추정값 */
+            em.persist(new Member("ESTIMATE1", 35));
+            em.persist(new Member("ESTIMATE2", 36));
+            em.flush();
+
+            final Page<MemberTeamDto> page = memberRepository.complexSearch(condition, PageRequest.of(0, 2));
+
+            assertTrue(estimated.isPresent());
+            assertEquals(estimated.getAsLong(), page.getTotalElements());
+        } finally {
+            statisticsProperties.setMinRows(minRows);
+            statisticsProperties.setExactCountThreshold(exactCountThreshold);
+        }
+    }
+
+    @Test
+    void test_complexSearch_estimatedCount_ageOnly() {
+        /* complexSearch 는 나이 조건만 사용하므로 이름 조건이 있어도 전체 개수는 나이 조건만의 추정값 */
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .userName("member1")
+                                                                     .teamName("Team-A")
+                                                                     .ageGoe(0)
+                                                                     .ageLoe(200)
+                                                                     .build();
+        final MemberSearchCondition ageOnly = MemberSearchCondition.builder()
+                                                                   .ageGoe(0)
+                                                                   .ageLoe(200)
+                                                                   .build();
+        final long minRows = statisticsProperties.getMinRows();
+        final long exactCountThreshold = statisticsProperties.getExactCountThreshold();
+        statisticsProperties.setMinRows(1);
+        statisticsProperties.setExactCountThreshold(3);
+        try {
+            planner.collect();
+            final OptionalLong estimated = planner.estimatedCount(ageOnly);
+
+            final Page<MemberTeamDto> page = memberRepository.complexSearch(condition, PageRequest.of(0, 2));
+
+            assertTrue(estimated.isPresent());
+            assertEquals(estimated.getAsLong(), page.getTotalElements());
+        } finally {
+            statisticsProperties.setMinRows(minRows);
+            statisticsProperties.setExactCountThreshold(exactCountThreshold);
+        }
+    }
+
+    @Test
+    void test_moveMembers() {
+        final long count = memberRepository.moveMembers(teamA.getId(), teamB.getId());
+        final Long teamBCount = em.createQuery("select count(m) from Member m where m.team.id = :teamId", Long.class)
+                                  .setParameter("teamId", teamB.getId())
+                                  .getSingleResult();
+
+        assertEquals(2, count);
+        assertEquals(5L, teamBCount);
+    }
+
+    @Test
+    void test_moveMembers_refresh() {
+        final Member member = memberRepository.findByUsername("DOBY").get(0);
+        final Member other = memberRepository.findByUsername("LIME").get(0);
+        final Team team = em.find(Team.class, teamB.getId());
+        assertEquals(3, team.getMembers().size());
+
+        memberRepository.moveMembers(teamA.getId(), teamB.getId());
+
+        assertTrue(em.contains(other));
+        assertEquals(teamB.getId(), member.getTeam().getId());
+        assertEquals(5, team.getMembers().size());
+    }
+
+    @Test
+    void test_searchDeduplicated() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-B")
+                                                                     .build();
+        /* search 는 정렬이 없어서 id 순으로 맞춰서 비교 */
+        final List<MemberTeamDto> expected = memberRepository.search(condition);
+        final List<MemberTeamDto> results = memberRepository.searchDeduplicated(condition);
+        expected.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+        results.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(expected.get(i).getMemberId(), results.get(i).getMemberId());
+            assertEquals(expected.get(i).getUserName(), results.get(i).getUserName());
+            assertEquals(expected.get(i).getTeamName(), results.get(i).getTeamName());
+            assertSame(results.get(0).getTeamName(), results.get(i).getTeamName());
+        }
+    }
+
+    @Test
+    void test_searchGroupByTeam() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-A")
+                                                                     .build();
+        final Map<Long, List<MemberTeamDto>> results = memberRepository.searchGroupByTeam(condition);
+        final List<MemberTeamDto> teamAMembers = results.get(teamA.getId());
+
+        assertEquals(2, teamAMembers.size());
+        assertSame(teamAMembers.get(0).getTeamName(), teamAMembers.get(1).getTeamName());
+    }
+
+    @Test
+    void test_exists() {
+        final MemberSearchCondition exists = MemberSearchCondition.builder()
+                                                                  .teamName("Team-A")
+                                                                  .userName("DOBY")
+                                                                  .build();
+        final MemberSearchCondition notExists = MemberSearchCondition.builder()
+                                                                     .teamName("Team-B")
+                                                                     .userName("DOBY")
+                                                                     .build();
+
+        assertTrue(memberRepository.exists(exists));
+        assertFalse(memberRepository.exists(notExists));
+    }
+
+    @Test
+    void test_countUpTo() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-B")
+                                                                     .build();
+
+        assertEquals(2, memberRepository.countUpTo(condition, 2));
+        assertEquals(memberRepository.search(condition).size(), memberRepository.countUpTo(condition, 1_000));
+        assertEquals(0, memberRepository.countUpTo(condition, 0));
+        assertEquals(0, memberRepository.countUpTo(condition, -1));
+    }
+
+    @Test
+    void test_forEachSearch() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-B")
+                                                                     .ageLoe(28)
+                                                                     .build();
+        final List<MemberTeamDto> results = new ArrayList<>();
+
+        assertEquals(2, memberRepository.forEachSearch(condition, results::add));
+        assertEquals(memberRepository.search(condition).size(), results.size());
+    }
+
+    @Test
+    void test_search_deadline() {
+        final QueryDeadline deadline = QueryDeadline.after(Duration.ofSeconds(10));
+        deadline.cancel();
+
+        assertThrows(QueryDeadlineExceededException.class,
+                     () -> QueryDeadline.callWithin(deadline, () -> memberRepository.search(new MemberSearchCondition())));
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-B")
+                                                                     .build();
+        assertEquals(memberRepository.search(condition).size(),
+                     QueryDeadline.callWithin(QueryDeadline.after(Duration.ofSeconds(10)), () -> memberRepository.search(condition)).size());
+    }
+
+    @Test
+    void test_search_maxRows() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-B")
+                                                                     .build();
+        final int maxRows = queryTimeoutProperties.getMaxRows();
+        queryTimeoutProperties.setMaxRows(2);
+        try {
+            /* 리스트로 반환하는 검색만 제한, 커서로 읽는 forEachSearch 는 제한 없음 */
+            assertThrows(TooManyRowsException.class, () -> memberRepository.search(condition));
+            assertThrows(TooManyRowsException.class, () -> memberRepository.searchGroupByTeam(condition));
+            assertEquals(3, memberRepository.forEachSearch(condition, dto -> { }));
+        } finally {
+            queryTimeoutProperties.setMaxRows(maxRows);
+        }
+    }
+
+}
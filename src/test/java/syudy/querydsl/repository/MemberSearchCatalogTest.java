@@ -0,0 +1,34 @@
+package syudy.querydsl.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syudy.querydsl.dto.MemberSearchCondition;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MemberSearchCatalogTest {
+
+    @Test
+    @DisplayName("값이 달라도 조건 유무가 같으면 같은 predicate 인스턴스 재사용")
+    void test_predicate_01() {
+        final MemberSearchCondition first = MemberSearchCondition.builder().userName("member1").ageGoe(10).build();
+        final MemberSearchCondition second = MemberSearchCondition.builder().userName("member2").ageGoe(30).build();
+        final MemberSearchCondition other = MemberSearchCondition.builder().teamName("teamA").ageGoe(30).build();
+
+        assertSame(MemberSearchCatalog.predicate(first), MemberSearchCatalog.predicate(second));
+        assertNotSame(MemberSearchCatalog.predicate(first), MemberSearchCatalog.predicate(other));
+        assertNull(MemberSearchCatalog.predicate(new MemberSearchCondition()));
+    }
+
+    @Test
+    @DisplayName("agePredicate 는 이름 조건을 무시")
+    void test_agePredicate_01() {
+        final MemberSearchCondition named = MemberSearchCondition.builder().userName("member1").teamName("teamA").ageLoe(40).build();
+        final MemberSearchCondition ageOnly = MemberSearchCondition.builder().ageLoe(40).build();
+
+        assertSame(MemberSearchCatalog.predicate(ageOnly), MemberSearchCatalog.agePredicate(named));
+    }
+
+}
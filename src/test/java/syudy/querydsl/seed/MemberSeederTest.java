@@ -0,0 +1,53 @@
+package syudy.querydsl.seed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.importer.MemberImporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* seed 는 기본 비활성이라 작은 설정으로 직접 생성해서 실행, writer 가 각자 커밋하기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class MemberSeederTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberImporter memberImporter;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from member where username like 'member-%'");
+        jdbcTemplate.update("delete from team where name like 'team-%'");
+    }
+
+    @Test
+    @DisplayName("부족한 만큼만 생성하고, 목표 건수가 있으면 다시 실행해도 추가하지 않음")
+    void test_seed_01() {
+        final long existing = count("select count(*) from member");
+        final SeedProperties properties = new SeedProperties();
+        properties.setMembers(existing + 30);
+        properties.setTeams(3);
+        properties.setWriters(2);
+        final MemberSeeder seeder = new MemberSeeder(properties, jdbcTemplate, memberImporter);
+
+        seeder.run(new DefaultApplicationArguments());
+        seeder.run(new DefaultApplicationArguments());
+
+        assertEquals(existing + 30, count("select count(*) from member"));
+        assertEquals(30L, count("select count(*) from member where username like 'member-%'"));
+        assertEquals(3L, count("select count(*) from team where name like 'team-%'"));
+        assertEquals(10L, count("select count(*) from member m join team t on m.team_id = t.team_id where t.name = 'team-0'"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+}
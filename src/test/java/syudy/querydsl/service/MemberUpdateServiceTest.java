@@ -0,0 +1,73 @@
+package syudy.querydsl.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* 재시도는 새 트랜잭션에서 동작하기 때문에 @Transactional 없이 실제 커밋으로 검증 */
+@IntegrationTest
+class MemberUpdateServiceTest {
+
+    @Autowired
+    private MemberUpdateService memberUpdateService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        memberId = memberRepository.save(new Member("DOBY", 30)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteById(memberId);
+    }
+
+    @Test
+    @DisplayName("DB 에서 원자적으로 나이 증가, version 도 함께 증가")
+    void test_increaseAge_01() {
+        memberUpdateService.increaseAge(memberId, 1);
+        memberUpdateService.increaseAge(memberId, 1);
+
+        final Member member = memberRepository.findById(memberId).get();
+        assertEquals(32, member.getAge());
+        assertEquals(2L, member.getVersion());
+    }
+
+    @Test
+    @DisplayName("다른 트랜잭션이 먼저 수정하면 낙관적 락 충돌 후 재시도해서 두 변경 모두 반영")
+    void test_update_retry_01() {
+        final TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        memberUpdateService.update(memberId, member -> {
+            if (attempts.incrementAndGet() == 1) {
+                concurrent.execute(status -> memberRepository.increaseAge(memberId, 1));
+            }
+            member.setAge(member.getAge() + 10);
+        });
+
+        assertEquals(2, attempts.get());
+        assertEquals(41, memberRepository.findById(memberId).get().getAge());
+    }
+
+}
@@ -0,0 +1,125 @@
+package syudy.querydsl.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.entity.Team;
+import syudy.querydsl.support.timeout.QueryDeadline;
+import syudy.querydsl.support.timeout.QueryDeadlineExceededException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* shard 프로파일 : 로컬 H2 인스턴스 3개를 shard 로 사용, shard 마다 별도 트랜잭션이라 @Transactional 없이 검증 */
+@IntegrationTest
+@ActiveProfiles("shard")
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    private ShardedMemberRepository shardedMemberRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Team teamA;
+
+    @BeforeEach
+    void setUp() {
+        teamA = shardedMemberRepository.saveTeam(new Team("Team-A"));
+        final Team teamB = shardedMemberRepository.saveTeam(new Team("Team-B"));
+
+        shardedMemberRepository.save(new Member("DOBY", 31, teamA));
+        shardedMemberRepository.save(new Member("RED", 33, teamA));
+        shardedMemberRepository.save(new Member("LIME", 28, teamB));
+        shardedMemberRepository.save(new Member("NORI", 30, teamB));
+        shardedMemberRepository.save(new Member(null, 28, teamB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            ShardContext.callOn(shard, () -> {
+                jdbcTemplate.update("delete from member");
+                return jdbcTemplate.update("delete from team");
+            });
+        }
+    }
+
+    @Test
+    void test_save_routing() {
+        final int shard = shardRouter.shardOfTeamName("Team-A");
+        final Integer count = ShardContext.callOn(shard, () ->
+                jdbcTemplate.queryForObject("select count(*) from member where team_id = ?", Integer.class, teamA.getId()));
+
+        assertEquals(shard, shardRouter.shardOfTeamId(teamA.getId()));
+        assertEquals(2, count);
+    }
+
+    @Test
+    void test_sequenceRestart() {
+        /* shard 3개 : 사용한 최대 id 다음의 같은 나머지 값부터 */
+        assertEquals(4L, shardRouter.sequenceRestart(1, 0L));
+        assertEquals(13L, shardRouter.sequenceRestart(1, 10L));
+        assertEquals(15L, shardRouter.sequenceRestart(0, 12L));
+    }
+
+    @Test
+    void test_search_singleShard() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .teamName("Team-A")
+                                                                     .build();
+        assertEquals(2, shardedMemberRepository.search(condition).size());
+    }
+
+    @Test
+    void test_search_scatterGather() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .ageGoe(30)
+                                                                     .build();
+        assertEquals(3, shardedMemberRepository.search(condition).size());
+    }
+
+    @Test
+    void test_search_scatterGather_deadline() {
+        /* 호출한 스레드의 QueryDeadline 이 shard 스레드에도 지정되어 취소된 요청은 어느 shard 에서도 실행되지 않음 */
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .ageGoe(30)
+                                                                     .build();
+        final QueryDeadline deadline = QueryDeadline.after(Duration.ofSeconds(5));
+        deadline.cancel();
+
+        assertThrows(QueryDeadlineExceededException.class,
+                     () -> QueryDeadline.callWithin(deadline, () -> shardedMemberRepository.search(condition)));
+    }
+
+    @Test
+    void test_complexSearch_merge() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder()
+                                                                     .ageGoe(20)
+                                                                     .ageLoe(40)
+                                                                     .build();
+        final Page<MemberTeamDto> page = shardedMemberRepository.complexSearch(condition, PageRequest.of(1, 2));
+        final List<MemberTeamDto> contents = page.getContent();
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(2, contents.size());
+        assertTrue(contents.get(0).getMemberId() < contents.get(1).getMemberId());
+    }
+
+}
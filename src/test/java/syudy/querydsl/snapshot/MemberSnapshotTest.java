@@ -0,0 +1,102 @@
+package syudy.querydsl.snapshot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syudy.querydsl.dto.MemberSearchCondition;
+import syudy.querydsl.dto.MemberTeamDto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MemberSnapshotTest {
+
+    private ForkJoinPool pool;
+    private Map<Long, String> teams;
+    private MemberSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+        teams = new HashMap<>();
+        teams.put(1L, "teamA");
+        teams.put(2L, "teamB");
+
+        final MemberColumns columns = new MemberColumns(0);
+        for (long id = 1; id <= 100; id++) {
+            columns.add(id, "member" + id, (int) id, id % 2 == 0 ? 2L : 1L);
+        }
+        columns.add(101L, "member101", 50, MemberColumns.NO_TEAM);
+        snapshot = MemberSnapshot.of(columns, teams, 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("나이 인덱스, 순차 스캔, 병렬 스캔 모두 같은 결과 (member_id 순서)")
+    void test_search_01() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder().teamName("teamB").ageGoe(35).ageLoe(40).build();
+
+        final List<Long> indexed = ids(snapshot.search(condition, pool, Integer.MAX_VALUE));
+        final List<Long> parallel = ids(snapshot.search(MemberSearchCondition.builder().teamName("teamB").ageGoe(0).ageLoe(100).build(), pool, 1));
+
+        assertEquals(Arrays.asList(36L, 38L, 40L), indexed);
+        assertEquals(50, parallel.size());
+        assertEquals(parallel.stream().sorted().collect(Collectors.toList()), parallel);
+    }
+
+    @Test
+    @DisplayName("결과는 rowLimit 건까지만, member_id 순서로 앞에서부터 (DB 검색과 같은 maxRows 확인용)")
+    void test_search_rowLimit() {
+        final MemberSearchCondition condition = MemberSearchCondition.builder().teamName("teamB").ageGoe(0).ageLoe(100).build();
+
+        final List<Long> limited = ids(snapshot.search(condition, pool, Integer.MAX_VALUE, 3L));
+        final List<Long> all = ids(snapshot.search(condition, pool, Integer.MAX_VALUE, Long.MAX_VALUE));
+
+        assertEquals(all.subList(0, 3), limited);
+        assertEquals(50, all.size());
+    }
+
+    @Test
+    @DisplayName("팀이 없는 회원은 팀 조건이 없을 때만 조회")
+    void test_search_02() {
+        final List<MemberTeamDto> results = snapshot.search(MemberSearchCondition.builder().userName("member101").build(), pool, Integer.MAX_VALUE);
+
+        assertEquals(1, results.size());
+        assertNull(results.get(0).getTeamName());
+        assertEquals(0, snapshot.search(MemberSearchCondition.builder().userName("member101").teamName("teamA").build(), pool, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    @DisplayName("변경된 row 만 바꾼 새 스냅샷 (삭제된 회원은 reloaded 에 없음)")
+    void test_apply_01() {
+        final MemberColumns reloaded = new MemberColumns(0);
+        reloaded.add(3L, "member3", 99, 2L);
+        reloaded.add(200L, "member200", 99, 1L);
+
+        final MemberSnapshot applied = snapshot.apply(new HashSet<>(Arrays.asList(2L, 3L, 200L)), reloaded, teams, 10L);
+        final List<Long> ids = ids(applied.search(MemberSearchCondition.builder().ageGoe(99).build(), pool, Integer.MAX_VALUE));
+
+        assertEquals(101, applied.size());
+        assertEquals(Arrays.asList(3L, 99L, 200L), ids);
+        assertEquals(Collections.emptyList(), ids(applied.search(MemberSearchCondition.builder().userName("member2").build(), pool, Integer.MAX_VALUE)));
+    }
+
+    private List<Long> ids(List<MemberTeamDto> results) {
+        return results.stream().map(MemberTeamDto::getMemberId).collect(Collectors.toList());
+    }
+
+}
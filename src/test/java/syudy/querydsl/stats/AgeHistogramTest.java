@@ -0,0 +1,35 @@
+package syudy.querydsl.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgeHistogramTest {
+
+    @Test
+    @DisplayName("버킷마다 비슷한 row 수, 범위 추정은 버킷 안에서 균등 분포로 계산")
+    void test_estimate_01() {
+        /* 20 ~ 29 세에 100 명씩, 30 세에 1000 명 */
+        final int[] ages = new int[11];
+        final long[] frequencies = new long[11];
+        for (int i = 0; i < 10; i++) {
+            ages[i] = 20 + i;
+            frequencies[i] = 100;
+        }
+        ages[10] = 30;
+        frequencies[10] = 1_000;
+
+        final AgeHistogram histogram = AgeHistogram.of(ages, frequencies, 4);
+
+        assertEquals(2_000, histogram.getTotal());
+        assertEquals(2_000, histogram.estimate(null, null));
+        assertEquals(1_000, histogram.estimate(30, null));
+        assertEquals(0, histogram.estimate(40, null));
+        assertEquals(0, histogram.estimate(25, 24));
+        final long twenties = histogram.estimate(20, 29);
+        assertTrue(twenties >= 900 && twenties <= 1_100, "estimate: " + twenties);
+    }
+
+}
@@ -0,0 +1,91 @@
+package syudy.querydsl.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import syudy.querydsl.dto.MemberSearchCondition;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* 다른 테스트 데이터가 통계에 섞이지 않도록 별도 H2 DB 에서 기준값을 낮춰서 검증 */
+class MemberQueryPlannerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MemberQueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:planner-test;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table team (team_id bigint primary key, name varchar(255))");
+        jdbcTemplate.execute("create table member (member_id bigint primary key, username varchar(255), age integer not null, team_id bigint)");
+
+        /* PLAN-A : 1 명 (60 세), PLAN-B : 9 명 (20 ~ 28 세) */
+        jdbcTemplate.update("insert into team values (1, 'PLAN-A'), (2, 'PLAN-B')");
+        jdbcTemplate.update("insert into member values (1, 'member-1', 60, 1)");
+        for (int i = 0; i < 9; i++) {
+            jdbcTemplate.update("insert into member values (?, ?, ?, 2)", 10 + i, "member-" + (10 + i), 20 + i);
+        }
+
+        final StatisticsProperties properties = new StatisticsProperties();
+        properties.setMinRows(5);
+        properties.setExactCountThreshold(5);
+        properties.setStreamingThreshold(5);
+        planner = new MemberQueryPlanner(properties, jdbcTemplate);
+        planner.collect();
+    }
+
+    @AfterEach
+    void tearDown() {
+        planner.destroy();
+        jdbcTemplate.execute("drop table member");
+        jdbcTemplate.execute("drop table team");
+    }
+
+    @Test
+    @DisplayName("추정 결과가 exactCountThreshold 이상일 때만 count 쿼리 대신 추정값")
+    void test_estimatedCount_01() {
+        final OptionalLong all = planner.estimatedCount(MemberSearchCondition.builder().build());
+        final OptionalLong old = planner.estimatedCount(MemberSearchCondition.builder().ageGoe(60).build());
+
+        assertEquals(OptionalLong.of(10L), all);
+        assertFalse(old.isPresent());
+    }
+
+    @Test
+    @DisplayName("추정 결과가 streamingThreshold 이상이면 커서로 읽음")
+    void test_streaming_01() {
+        assertTrue(planner.streaming(MemberSearchCondition.builder().teamName("PLAN-B").build()));
+        assertFalse(planner.streaming(MemberSearchCondition.builder().teamName("PLAN-A").build()));
+    }
+
+    @Test
+    @DisplayName("팀 회원 수가 나이 조건으로 남는 회원 수보다 적으면 Team 에서 시작")
+    void test_driveFromTeam_01() {
+        assertTrue(planner.driveFromTeam(MemberSearchCondition.builder().teamName("PLAN-A").build()));
+        assertFalse(planner.driveFromTeam(MemberSearchCondition.builder().teamName("PLAN-B").ageGoe(60).build()));
+        assertFalse(planner.driveFromTeam(MemberSearchCondition.builder().build()));
+    }
+
+    @Test
+    @DisplayName("회원 수가 minRows 미만이면 통계를 쓰지 않음")
+    void test_minRows_01() {
+        final StatisticsProperties properties = new StatisticsProperties();
+        properties.setExactCountThreshold(1);
+        properties.setStreamingThreshold(1);
+        final MemberQueryPlanner defaultPlanner = new MemberQueryPlanner(properties, jdbcTemplate);
+        defaultPlanner.collect();
+
+        assertFalse(defaultPlanner.estimatedCount(MemberSearchCondition.builder().build()).isPresent());
+        assertFalse(defaultPlanner.streaming(MemberSearchCondition.builder().build()));
+        assertFalse(defaultPlanner.driveFromTeam(MemberSearchCondition.builder().teamName("PLAN-A").build()));
+        defaultPlanner.destroy();
+    }
+
+}
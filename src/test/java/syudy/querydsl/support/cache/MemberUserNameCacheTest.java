@@ -0,0 +1,85 @@
+package syudy.querydsl.support.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.importer.MemberImporter;
+import syudy.querydsl.repository.MemberJpaRepository;
+import syudy.querydsl.repository.MemberRepository;
+
+import javax.persistence.NoResultException;
+import javax.persistence.NonUniqueResultException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/* 캐시는 읽기/쓰기 트랜잭션 밖에서만 사용하기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class MemberUserNameCacheTest {
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberUserNameCache userNameCache;
+
+    @Autowired
+    private MemberImporter memberImporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from member where username like 'CACHE-%'");
+        jdbcTemplate.update("delete from team where name like 'CACHE-%'");
+    }
+
+    @Test
+    @DisplayName("없는 이름도 캐시하고, 같은 이름의 회원이 추가되면 ChangeFeed 로 무효화")
+    void test_negative_01() {
+        assertThrows(NoResultException.class, () -> memberJpaRepository.findByUserName("CACHE-NEW"));
+        final long hits = userNameCache.getHits();
+        assertNull(memberJpaRepository.findByUserNameUsingQuerydsl("CACHE-NEW"));
+        assertEquals(hits + 1, userNameCache.getHits());
+
+        memberRepository.save(new Member("CACHE-NEW", 20));
+
+        assertEquals(20, memberJpaRepository.findByUserName("CACHE-NEW").getAge());
+        assertEquals(20, memberJpaRepository.findByUserNameUsingQuerydsl("CACHE-NEW").getAge());
+    }
+
+    @Test
+    @DisplayName("이름이 바뀐 회원은 예전 이름으로 찾지 못함")
+    void test_rename_01() {
+        final Member saved = memberRepository.save(new Member("CACHE-OLD", 30));
+        assertEquals(saved.getId(), memberJpaRepository.findByUserName("CACHE-OLD").getId());
+
+        saved.setUsername("CACHE-RENAMED");
+        memberRepository.save(saved);
+
+        assertNull(memberJpaRepository.findByUserNameUsingQuerydsl("CACHE-OLD"));
+        assertEquals(saved.getId(), memberJpaRepository.findByUserName("CACHE-RENAMED").getId());
+    }
+
+    @Test
+    @DisplayName("importer 로 같은 이름의 회원이 추가되면 ChangeFeed 로 무효화 (캐시된 id 가 중복을 가리지 않음)")
+    void test_duplicate_01() {
+        final Member saved = memberRepository.save(new Member("CACHE-DUP", 30));
+        assertEquals(saved.getId(), memberJpaRepository.findByUserName("CACHE-DUP").getId());
+
+        memberImporter.importLines(Collections.singletonList("CACHE-DUP,40,CACHE-TEAM").iterator(), 1);
+
+        assertThrows(NonUniqueResultException.class, () -> memberJpaRepository.findByUserName("CACHE-DUP"));
+    }
+
+}
@@ -0,0 +1,24 @@
+package syudy.querydsl.support.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementCacheMonitorTest {
+
+    @Test
+    @DisplayName("같은 SQL 은 한번만 세서 캐시 크기와 비교할 distinct 수를 계산")
+    void test_distinct_01() {
+        final StatementCacheMonitor monitor = new StatementCacheMonitor(2);
+
+        monitor.inspect("select 1");
+        monitor.inspect("select 1");
+        monitor.inspect("select 2");
+        monitor.inspect("select 3");
+
+        assertEquals(3, monitor.getDistinctStatements());
+        assertEquals(2, monitor.getSize());
+    }
+
+}
@@ -0,0 +1,42 @@
+package syudy.querydsl.support.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TinyLfuCacheTest {
+
+    @Test
+    @DisplayName("한번씩만 조회되는 key 가 대량으로 지나가도 자주 조회되는 key 는 남음")
+    void test_scan_resistance_01() {
+        final TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                final String hot = "hot-" + i;
+                if (cache.get(hot) == null) {
+                    cache.put(hot, i);
+                }
+            }
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            final String once = "once-" + i;
+            if (cache.get(once) == null) {
+                cache.put(once, i);
+            }
+        }
+
+        int hits = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("hot-" + i) != null) {
+                hits++;
+            }
+        }
+        assertEquals(50, hits);
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.getRejections() > 0);
+    }
+
+}
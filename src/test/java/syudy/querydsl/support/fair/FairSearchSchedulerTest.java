@@ -0,0 +1,132 @@
+package syudy.querydsl.support.fair;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syudy.querydsl.support.limit.AdaptiveConcurrencyLimiter;
+import syudy.querydsl.support.limit.ConcurrencyLimitExceededException;
+import syudy.querydsl.support.limit.LimiterProperties;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FairSearchSchedulerTest {
+
+    private FairSchedulerProperties properties;
+    private FairSearchScheduler scheduler;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FairSchedulerProperties();
+        properties.setMaxConcurrency(2);
+        properties.setDefaultQuota(2);
+        properties.setMaxWait(Duration.ofSeconds(5));
+        scheduler = new FairSearchScheduler(properties, new AdaptiveConcurrencyLimiter(new LimiterProperties()));
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("큰 팀의 요청이 먼저 쌓여 있어도 나중에 온 작은 팀 요청이 먼저 실행")
+    void test_fair_01() throws InterruptedException {
+        final FairSearchScheduler.Ticket first = scheduler.acquire("BIG");
+        final FairSearchScheduler.Ticket second = scheduler.acquire("BIG");
+        final Queue<String> granted = new ConcurrentLinkedQueue<>();
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        for (int i = 0; i < 3; i++) {
+            submit("BIG", granted, finish);
+        }
+        await(() -> scheduler.getWaiting() == 3);
+        submit("SMALL", granted, finish);
+        await(() -> scheduler.getWaiting() == 4);
+
+        scheduler.release(first);
+        await(() -> granted.size() == 1);
+
+        assertEquals("SMALL", granted.peek());
+        assertEquals(3, scheduler.getWaiting());
+        finish.countDown();
+        scheduler.release(second);
+        await(() -> scheduler.getInFlight() == 0 && scheduler.getWaiting() == 0);
+    }
+
+    @Test
+    @DisplayName("팀별 quota 를 넘으면 전체 자리가 남아 있어도 대기하다가 거절, 다른 팀은 바로 실행")
+    void test_quota_01() {
+        properties.setDefaultQuota(1);
+        properties.setMaxWait(Duration.ofMillis(50));
+        final FairSearchScheduler.Ticket big = scheduler.acquire("BIG");
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> scheduler.acquire("BIG"));
+        final FairSearchScheduler.Ticket small = scheduler.acquire("SMALL");
+        assertEquals(2, scheduler.getInFlight());
+        assertEquals(1, scheduler.getRejected());
+
+        scheduler.release(big);
+        scheduler.release(small);
+    }
+
+    @Test
+    @DisplayName("요청자를 모르는 검색 (SHARED) 도 quota 를 넘으면 대기, quotas 로 따로 지정 가능")
+    void test_quota_02() {
+        properties.setDefaultQuota(1);
+        properties.setMaxWait(Duration.ofMillis(50));
+        final FairSearchScheduler.Ticket first = scheduler.acquire(TenantContext.resolve());
+        assertThrows(ConcurrencyLimitExceededException.class, () -> scheduler.acquire(TenantContext.SHARED));
+
+        properties.getQuotas().put(TenantContext.SHARED, 2);
+        final FairSearchScheduler.Ticket second = scheduler.acquire(TenantContext.SHARED);
+        assertEquals(2, scheduler.getInFlight());
+
+        scheduler.release(first);
+        scheduler.release(second);
+    }
+
+    @Test
+    @DisplayName("요청자는 검색 조건이 아니라 지정된 값으로만 구분")
+    void test_tenant_01() {
+        assertEquals(TenantContext.SHARED, TenantContext.resolve());
+        assertEquals("CLIENT", TenantContext.callAs("CLIENT", TenantContext::resolve));
+        assertEquals(TenantContext.SHARED, TenantContext.resolve());
+    }
+
+    private void submit(String tenant, Queue<String> granted, CountDownLatch finish) {
+        executor.submit(() -> {
+            final FairSearchScheduler.Ticket ticket = scheduler.acquire(tenant);
+            granted.add(tenant);
+            try {
+                finish.await();
+            } finally {
+                scheduler.release(ticket);
+            }
+            return null;
+        });
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in 5s");
+            Thread.sleep(5L);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package syudy.querydsl.support.fair;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TenantFilterTest {
+
+    private static final String HEADER = "X-Tenant-Id";
+
+    @Test
+    @DisplayName("principal 이 있으면 principal, 없으면 tenantHeader 로 지정한 header 만 사용")
+    void test_filter_01() throws Exception {
+        final FairSchedulerProperties properties = new FairSchedulerProperties();
+        properties.setTenantHeader(HEADER);
+        final TenantFilter filter = new TenantFilter(properties);
+
+        final MockHttpServletRequest header = new MockHttpServletRequest();
+        header.addHeader(HEADER, "CLIENT");
+        assertEquals("CLIENT", tenantOf(filter, header));
+
+        final MockHttpServletRequest principal = new MockHttpServletRequest();
+        principal.addHeader(HEADER, "CLIENT");
+        principal.setUserPrincipal(() -> "USER");
+        assertEquals("USER", tenantOf(filter, principal));
+
+        assertEquals(TenantContext.SHARED, tenantOf(filter, new MockHttpServletRequest()));
+        assertEquals(TenantContext.SHARED, TenantContext.resolve());
+    }
+
+    @Test
+    @DisplayName("tenantHeader 를 지정하지 않으면 클라이언트가 보낸 header 는 무시")
+    void test_filter_02() throws Exception {
+        final TenantFilter filter = new TenantFilter(new FairSchedulerProperties());
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HEADER, "CLIENT");
+        assertEquals(TenantContext.SHARED, tenantOf(filter, request));
+    }
+
+    private String tenantOf(TenantFilter filter, MockHttpServletRequest request) throws Exception {
+        final AtomicReference<String> tenant = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> tenant.set(TenantContext.resolve()));
+        return tenant.get();
+    }
+
+}
@@ -0,0 +1,140 @@
+package syudy.querydsl.support.flight;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import syudy.querydsl.support.timeout.QueryDeadline;
+import syudy.querydsl.support.timeout.QueryDeadlineExceededException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("같은 key 의 동시 요청은 한번만 실행하고 결과 공유")
+    void test_coalesce_01() throws Exception {
+        final SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties());
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            while (singleFlight.getExecutions() == 0L) {
+                Thread.sleep(1L);
+            }
+            Thread.sleep(50L);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(1, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(7, singleFlight.getShared());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("ttl 이 지나거나 실패하면 다시 실행")
+    void test_expire_01() throws Exception {
+        final SingleFlightProperties properties = new SingleFlightProperties();
+        properties.setTtl(Duration.ofMillis(20));
+        final SingleFlight singleFlight = new SingleFlight(properties);
+
+        assertEquals(1, (int) singleFlight.execute("key", () -> 1));
+        assertEquals(1, (int) singleFlight.execute("key", () -> 2));
+        Thread.sleep(30L);
+        assertEquals(3, (int) singleFlight.execute("key", () -> 3));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("fail", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(4, (int) singleFlight.execute("fail", () -> 4));
+    }
+
+    @Test
+    @DisplayName("실행한 요청이 취소되면 기다리던 요청은 그 예외를 받지 않고 다시 실행")
+    void test_leader_cancel_01() throws Exception {
+        final SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties());
+        final QueryDeadline leaderDeadline = QueryDeadline.after(Duration.ofSeconds(5));
+        final CountDownLatch started = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Integer> leader = executor.submit(() -> QueryDeadline.callWithin(leaderDeadline, () -> singleFlight.execute("key", () -> {
+                started.countDown();
+                while (!leaderDeadline.isCancelled()) {
+                    Thread.yield();
+                }
+                leaderDeadline.check();
+                return 1;
+            })));
+            started.await(1, TimeUnit.SECONDS);
+            final Future<Integer> follower = executor.submit(() -> QueryDeadline.callWithin(QueryDeadline.after(Duration.ofSeconds(5)),
+                                                                                           () -> singleFlight.execute("key", () -> 2)));
+            while (singleFlight.getShared() == 0L) {
+                Thread.sleep(1L);
+            }
+            leaderDeadline.cancel();
+
+            assertEquals(2, follower.get(1, TimeUnit.SECONDS));
+            final ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS));
+            assertTrue(leaderFailure.getCause() instanceof QueryDeadlineExceededException);
+            assertEquals(2, singleFlight.getExecutions());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("기다리는 요청은 자기 마감 시간까지만 대기")
+    void test_follower_deadline_01() throws Exception {
+        final SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties());
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                await(release);
+                return 1;
+            }));
+            while (singleFlight.getExecutions() == 0L) {
+                Thread.sleep(1L);
+            }
+
+            assertThrows(QueryDeadlineExceededException.class, () -> QueryDeadline.callWithin(QueryDeadline.after(Duration.ofMillis(50)),
+                                                                                             () -> singleFlight.execute("key", () -> 2)));
+            release.countDown();
+            assertEquals(1, leader.get(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
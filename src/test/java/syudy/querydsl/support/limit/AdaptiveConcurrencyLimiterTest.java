@@ -0,0 +1,63 @@
+package syudy.querydsl.support.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private LimiterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LimiterProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(4);
+        properties.setMaxQueueSize(0);
+        properties.setMaxWait(Duration.ofMillis(10));
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("limit 를 넘는 요청은 대기열이 없으면 즉시 거절")
+    void test_reject_01() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        limiter.acquire();
+        limiter.acquire();
+
+        assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    @DisplayName("limit 에 도달한 상태에서 빠르게 응답하면 limit 증가 (additive increase)")
+    void test_increase_01() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        limiter.acquire();
+        limiter.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(3, limiter.getLimit());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("응답이 latencyThreshold 를 넘으면 limit 감소 (multiplicative decrease)")
+    void test_decrease_01() {
+        properties.setInitialLimit(4);
+        properties.setBackoffRatio(0.5);
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        limiter.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+}
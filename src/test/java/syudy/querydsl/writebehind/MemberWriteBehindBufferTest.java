@@ -0,0 +1,136 @@
+package syudy.querydsl.writebehind;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import syudy.querydsl.IntegrationTest;
+import syudy.querydsl.cdc.ChangeFeed;
+import syudy.querydsl.entity.Member;
+import syudy.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/* 버퍼는 별도 스레드/트랜잭션에서 기록하기 때문에 @Transactional 없이 검증 */
+@IntegrationTest
+class MemberWriteBehindBufferTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private WriteBehindProperties properties;
+    private MemberWriteBehindBuffer buffer;
+    private Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WriteBehindProperties();
+        properties.setFlushInterval(Duration.ofHours(1));
+        buffer = new MemberWriteBehindBuffer(properties, jdbcTemplate, changeFeed, em, transactionManager);
+        memberId = memberRepository.save(new Member("DOBY", 30)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.destroy();
+        jdbcTemplate.update("delete from member where username in ('DOBY', 'WRITE-BEHIND')");
+    }
+
+    @Test
+    @DisplayName("같은 회원의 변경은 하나로 합쳐서 한번의 커밋으로 기록")
+    void test_coalesce_01() {
+        buffer.updateAge(memberId, 40);
+        for (int i = 0; i < 100; i++) {
+            buffer.increaseAge(memberId, 1);
+        }
+        buffer.save(new Member("WRITE-BEHIND", 20));
+
+        assertEquals(2, buffer.getPendingCount());
+        buffer.flush();
+
+        assertEquals(1, buffer.getCommits());
+        assertEquals(140, memberRepository.findById(memberId).get().getAge());
+        assertEquals(1, memberRepository.findByUsername("WRITE-BEHIND").size());
+    }
+
+    @Test
+    @DisplayName("한 트랜잭션으로 실패하면 변경마다 따로 기록, 실패한 변경만 버퍼에 남아서 다음 flush 에서 다시 기록")
+    void test_requeue_01() {
+        final Member invalid = new Member(String.join("", Collections.nCopies(300, "x")), 20);
+        buffer.save(new Member("WRITE-BEHIND", 20));
+        buffer.save(invalid);
+        buffer.increaseAge(memberId, 1);
+
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+        assertEquals(1, buffer.getPendingCount());
+        assertEquals(1, memberRepository.findByUsername("WRITE-BEHIND").size());
+        assertEquals(31, memberRepository.findById(memberId).get().getAge());
+
+        invalid.setUsername("WRITE-BEHIND");
+        buffer.flush();
+
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(2, memberRepository.findByUsername("WRITE-BEHIND").size());
+        assertEquals(0, buffer.getDeadLetters());
+    }
+
+    @Test
+    @DisplayName("maxAttempts 번 따로 기록해도 실패한 변경은 버리고 dead-letter")
+    void test_deadLetter_01() {
+        properties.setMaxAttempts(2);
+        buffer.save(new Member(String.join("", Collections.nCopies(300, "x")), 20));
+        buffer.increaseAge(memberId, 1);
+
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+        assertEquals(1, buffer.getPendingCount());
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(1, buffer.getDeadLetters());
+        assertEquals(31, memberRepository.findById(memberId).get().getAge());
+    }
+
+    @Test
+    @DisplayName("version 이 null 인 회원도 나이 변경 시 version 증가")
+    void test_nullVersion_01() {
+        jdbcTemplate.update("update member set version = null where member_id = ?", memberId);
+        buffer.increaseAge(memberId, 1);
+        buffer.flush();
+
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from member where member_id = ?", Long.class, memberId));
+    }
+
+    @Test
+    @DisplayName("버퍼가 가득 차면 offerTimeout 후 거절 (backpressure)")
+    void test_backpressure_01() {
+        buffer.destroy();
+        properties.setCapacity(1);
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        buffer = new MemberWriteBehindBuffer(properties, jdbcTemplate, changeFeed, em, transactionManager);
+        buffer.destroy();
+
+        buffer.updateAge(memberId, 40);
+        assertThrows(WriteBehindRejectedException.class, () -> buffer.updateAge(memberId + 1, 41));
+    }
+
+}